@@ -0,0 +1,47 @@
+package com.movies.benchmark;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Entry point of the {@code benchmark} profile. JMH runs inside the booted
+ * test application without forking, so the benchmarks reach the real
+ * repository, persistence unit and {@code ObjectMapper} through Arc. The GC
+ * profiler adds the allocation rate per operation ({@code gc.alloc.rate.norm})
+ * to every result.
+ * <p>
+ * Results are written as JSON to {@code movies.benchmark.result}. Tune a run
+ * with {@code movies.benchmark.include} (a regular expression over benchmark
+ * names), {@code movies.benchmark.catalog-sizes}, {@code movies.benchmark.warmup}
+ * and {@code movies.benchmark.iterations}.
+ */
+@QuarkusTest
+public class MovieBenchmarkTest {
+
+    @Test
+    void runBenchmarks() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(System.getProperty("movies.benchmark.include", "com\\.movies\\.benchmark\\..*"))
+                .param("catalogSize", System.getProperty("movies.benchmark.catalog-sizes", "1000,100000,1000000").split(","))
+                .forks(0)
+                .addProfiler(GCProfiler.class)
+                .warmupIterations(Integer.getInteger("movies.benchmark.warmup", 3))
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(Integer.getInteger("movies.benchmark.iterations", 5))
+                .measurementTime(TimeValue.seconds(1))
+                .resultFormat(ResultFormatType.JSON)
+                .result(System.getProperty("movies.benchmark.result", "target/jmh-result.json"))
+                .build();
+
+        assertFalse(new Runner(options).run().isEmpty(), "no benchmark matched movies.benchmark.include");
+    }
+}
@@ -0,0 +1,101 @@
+package com.movies.benchmark;
+
+import com.movies.bulk.MoviePatcher;
+import com.movies.dto.BatchPatchReport;
+import com.movies.dto.MoviePatch;
+import com.movies.entities.Movie;
+import com.movies.events.MovieChange;
+import com.movies.repository.MovieRepository;
+import io.quarkus.arc.Arc;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.event.Event;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Movies updated per second when {@code BATCH_SIZE} partial updates go
+ * through {@link MoviePatcher} in one transaction, against the same updates
+ * applied one movie at a time: each in its own transaction as separate
+ * {@code PATCH /movies/{id}} requests would, and all in one transaction with
+ * a load and a flush per movie. Only descriptions change, so the titles and
+ * countries the other benchmarks look up stay valid.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PatchBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"1000", "100000", "1000000"})
+    int catalogSize;
+
+    MovieRepository movieRepository;
+    MoviePatcher moviePatcher;
+    Event<MovieChange> movieChanges;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        movieRepository = Arc.container().instance(MovieRepository.class).get();
+        moviePatcher = Arc.container().instance(MoviePatcher.class).get();
+        movieChanges = Arc.container().beanManager().getEvent().select(MovieChange.class);
+        Catalog.seed(Arc.container().instance(EntityManager.class).get(), catalogSize);
+    }
+
+    private List<MoviePatch> randomPatches() {
+        String description = "Patched " + System.nanoTime();
+        return ThreadLocalRandom.current().longs(1, catalogSize + 1)
+                .distinct()
+                .limit(BATCH_SIZE)
+                .mapToObj(id -> {
+                    MoviePatch patch = new MoviePatch();
+                    patch.setId(id);
+                    patch.setDescription(description);
+                    return patch;
+                })
+                .toList();
+    }
+
+    private void patchOne(MoviePatch patch) {
+        Movie movie = movieRepository.findByIdOptional(patch.getId()).orElseThrow();
+        Movie before = MovieChange.copy(movie);
+        patch.applyTo(movie);
+        movieRepository.flush();
+        movieChanges.fire(MovieChange.updated(before, movie));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public BatchPatchReport patchBatch() {
+        List<MoviePatch> patches = randomPatches();
+        return QuarkusTransaction.requiringNew().call(() -> moviePatcher.patch(patches));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void patchEachInOwnTransaction() {
+        for (MoviePatch patch : randomPatches()) {
+            QuarkusTransaction.requiringNew().run(() -> patchOne(patch));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void patchEachFlushed() {
+        List<MoviePatch> patches = randomPatches();
+        QuarkusTransaction.requiringNew().run(() -> patches.forEach(this::patchOne));
+    }
+}
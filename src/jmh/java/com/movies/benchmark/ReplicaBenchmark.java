@@ -0,0 +1,87 @@
+package com.movies.benchmark;
+
+import com.movies.entities.Movie;
+import com.movies.replica.ReplicaRouter;
+import com.movies.repository.MovieRepository;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ManagedContext;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read throughput of {@link MovieRepository#findPage} from concurrent threads
+ * with {@code replicas} replicas active, 0 reading from the primary only. The
+ * {@code benchmark} profile declares the replicas of the {@code replicas}
+ * profile, inactive until this benchmark activates them. Reads run outside a
+ * transaction, in their own request context, so that they may be routed.
+ * <p>
+ * With 0 replicas the request's primary session is set up like a replica
+ * session, read-only and reading the second-level cache without filling it,
+ * so that only the number of replicas differs between runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class ReplicaBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000", "100000", "1000000"})
+    int catalogSize;
+
+    @Param({"0", "1", "2"})
+    int replicas;
+
+    MovieRepository movieRepository;
+    ReplicaRouter replicaRouter;
+    ManagedContext requestContext;
+    Session primarySession;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        movieRepository = Arc.container().instance(MovieRepository.class).get();
+        replicaRouter = Arc.container().instance(ReplicaRouter.class).get();
+        requestContext = Arc.container().requestContext();
+        primarySession = Arc.container().instance(Session.class).get();
+        Catalog.seed(Arc.container().instance(EntityManager.class).get(), catalogSize);
+        replicaRouter.setActiveReplicas(0);
+        replicaRouter.setActiveReplicas(replicas);
+    }
+
+    @TearDown(Level.Trial)
+    public void deactivate() {
+        replicaRouter.setActiveReplicas(0);
+    }
+
+    @Benchmark
+    public List<Movie> findPage() {
+        long after = Math.max(0, ThreadLocalRandom.current().nextLong(1, catalogSize + 1) - PAGE_SIZE);
+        requestContext.activate();
+        try {
+            if (replicas == 0) {
+                primarySession.setDefaultReadOnly(true);
+                primarySession.setCacheMode(CacheMode.GET);
+            }
+            return movieRepository.findPage(after, PAGE_SIZE);
+        } finally {
+            requestContext.terminate();
+        }
+    }
+}
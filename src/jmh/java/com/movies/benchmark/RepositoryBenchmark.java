@@ -0,0 +1,124 @@
+package com.movies.benchmark;
+
+import com.movies.dto.MovieSummary;
+import com.movies.entities.Movie;
+import com.movies.repository.MovieRepository;
+import io.quarkus.arc.Arc;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Measures each {@link MovieRepository} access path against a catalog of
+ * {@code catalogSize} movies. Every call runs in its own transaction, the way
+ * a request gets its own persistence context, so entities never pile up
+ * between invocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RepositoryBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"1000", "100000", "1000000"})
+    int catalogSize;
+
+    MovieRepository movieRepository;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        movieRepository = Arc.container().instance(MovieRepository.class).get();
+        Catalog.seed(Arc.container().instance(EntityManager.class).get(), catalogSize);
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, catalogSize + 1);
+    }
+
+    @Benchmark
+    public Optional<Movie> findByIdOptional() {
+        long id = randomId();
+        return QuarkusTransaction.requiringNew().call(() -> movieRepository.findByIdOptional(id));
+    }
+
+    private List<Long> randomIds() {
+        return LongStream.generate(this::randomId).limit(BATCH_SIZE).boxed().toList();
+    }
+
+    /**
+     * Baseline for {@link #findByIds}: what a client fetching a watchlist one
+     * movie at a time costs the database.
+     */
+    @Benchmark
+    public void findByIdOptionalEach(Blackhole blackhole) {
+        for (long id : randomIds()) {
+            blackhole.consume(QuarkusTransaction.requiringNew().call(() -> movieRepository.findByIdOptional(id)));
+        }
+    }
+
+    @Benchmark
+    public List<Movie> findByIds() {
+        List<Long> ids = randomIds();
+        return QuarkusTransaction.requiringNew().call(() -> movieRepository.findByIds(ids));
+    }
+
+    @Benchmark
+    public Optional<Movie> findByTitle() {
+        String title = Catalog.title(randomId());
+        return QuarkusTransaction.requiringNew().call(() -> movieRepository.findByTitle(title));
+    }
+
+    @Benchmark
+    public List<Movie> findByCountry() {
+        String country = Catalog.country(randomId());
+        return QuarkusTransaction.requiringNew().call(() -> movieRepository.findByCountry(country));
+    }
+
+    @Benchmark
+    public List<Movie> findPage() {
+        long after = Math.max(0, randomId() - PAGE_SIZE);
+        return QuarkusTransaction.requiringNew().call(() -> movieRepository.findPage(after, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<MovieSummary> findSummariesByCountry() {
+        String country = Catalog.country(randomId());
+        return QuarkusTransaction.requiringNew().call(() -> movieRepository.findSummariesByCountry(country));
+    }
+
+    @Benchmark
+    public List<MovieSummary> findSummaryPage() {
+        long after = Math.max(0, randomId() - PAGE_SIZE);
+        return QuarkusTransaction.requiringNew().call(() -> movieRepository.findSummaryPage(after, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public Map<String, Long> countByCountry() {
+        return QuarkusTransaction.requiringNew().call(movieRepository::countByCountry);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void listAll(Blackhole blackhole) {
+        QuarkusTransaction.requiringNew().run(() -> blackhole.consume(movieRepository.listAll()));
+    }
+}
@@ -0,0 +1,89 @@
+package com.movies.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movies.dto.MoviePage;
+import com.movies.dto.MovieSummary;
+import com.movies.entities.Movie;
+import io.quarkus.arc.Arc;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the JSON encoding of {@code MovieResource} responses with the
+ * application's {@link ObjectMapper}: a single movie, a default page in the
+ * full and summary views, and a list of {@code catalogSize} movies as returned
+ * by the unpaged listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000", "100000", "1000000"})
+    int catalogSize;
+
+    ObjectMapper objectMapper;
+    Movie movie;
+    MoviePage<Movie> page;
+    MoviePage<MovieSummary> summaryPage;
+    List<Movie> movies;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        objectMapper = Arc.container().instance(ObjectMapper.class).get();
+        movies = new ArrayList<>(catalogSize);
+        for (long id = 1; id <= catalogSize; id++) {
+            movies.add(movie(id));
+        }
+        movie = movies.get(0);
+        List<Movie> items = movies.subList(0, Math.min(PAGE_SIZE, catalogSize));
+        page = new MoviePage<>(items, "aWQ6MjA");
+        summaryPage = new MoviePage<>(items.stream()
+                .map(item -> new MovieSummary(item.getId(), item.getTitle(), item.getCountry()))
+                .toList(), "aWQ6MjA");
+    }
+
+    private static Movie movie(long id) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle(Catalog.title(id));
+        movie.setDescription("Generated description of movie " + id);
+        movie.setDirector("Director " + id % Catalog.DIRECTORS);
+        movie.setCountry(Catalog.country(id));
+        return movie;
+    }
+
+    @Benchmark
+    public byte[] singleMovie() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(movie);
+    }
+
+    @Benchmark
+    public byte[] page() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] summaryPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(summaryPage);
+    }
+
+    @Benchmark
+    public byte[] unpagedList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(movies);
+    }
+}
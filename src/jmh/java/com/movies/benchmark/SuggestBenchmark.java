@@ -0,0 +1,104 @@
+package com.movies.benchmark;
+
+import com.movies.dto.Suggestion;
+import com.movies.entities.Movie;
+import com.movies.search.TitleSuggester;
+import io.quarkus.arc.Arc;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the latency of {@link TitleSuggester} lookups over
+ * {@code catalogSize} generated titles, so the result carries percentiles.
+ * Titles are two to four words drawn from a fixed vocabulary, and queries are
+ * the first one to eight characters of a random title, with one character
+ * replaced for the fuzzy lookups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SuggestBenchmark {
+
+    private static final long FIRST_ID = 1_000_000_000L;
+    private static final int VOCABULARY = 2000;
+    private static final int LIMIT = 10;
+
+    @Param({"1000", "100000", "1000000"})
+    int catalogSize;
+
+    TitleSuggester titleSuggester;
+    String[] titles;
+
+    @Setup(Level.Trial)
+    public void index() {
+        titleSuggester = Arc.container().instance(TitleSuggester.class).get();
+        Random random = new Random(42);
+        String[] words = new String[VOCABULARY];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = word(random);
+        }
+        titles = new String[catalogSize];
+        for (int i = 0; i < catalogSize; i++) {
+            StringBuilder title = new StringBuilder(words[random.nextInt(VOCABULARY)]);
+            for (int count = 1 + random.nextInt(3); count > 0; count--) {
+                title.append(' ').append(words[random.nextInt(VOCABULARY)]);
+            }
+            titles[i] = title.toString();
+            Movie movie = new Movie();
+            movie.setId(FIRST_ID + i);
+            movie.setTitle(titles[i]);
+            titleSuggester.index(movie);
+            for (int views = random.nextInt(4); views > 0; views--) {
+                titleSuggester.recordView(movie.getId());
+            }
+        }
+    }
+
+    private static String word(Random random) {
+        char[] word = new char[3 + random.nextInt(6)];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = (char) ('a' + random.nextInt(26));
+        }
+        word[0] = Character.toUpperCase(word[0]);
+        return new String(word);
+    }
+
+    @TearDown(Level.Trial)
+    public void remove() {
+        for (int i = 0; i < catalogSize; i++) {
+            titleSuggester.remove(FIRST_ID + i);
+        }
+    }
+
+    private String randomPrefix() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String title = titles[random.nextInt(catalogSize)];
+        return title.substring(0, Math.min(title.length(), 1 + random.nextInt(8)));
+    }
+
+    @Benchmark
+    public List<Suggestion> suggest() {
+        return titleSuggester.suggest(randomPrefix(), LIMIT, false);
+    }
+
+    @Benchmark
+    public List<Suggestion> suggestFuzzy() {
+        char[] prefix = randomPrefix().toCharArray();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        prefix[random.nextInt(prefix.length)] = (char) ('a' + random.nextInt(26));
+        return titleSuggester.suggest(new String(prefix), LIMIT, true);
+    }
+}
@@ -0,0 +1,111 @@
+package com.movies.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency histograms in microseconds, one per operation plus one for the
+ * whole mix, with the count of unexpected statuses.
+ */
+final class LoadResults {
+
+    private static final long HIGHEST_MICROS = 60_000_000;
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Histogram total = histogram();
+    private final Map<Operation, Histogram> byOperation = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+    private volatile long elapsedNanos;
+
+    LoadResults() {
+        for (Operation operation : Operation.values()) {
+            byOperation.put(operation, histogram());
+            errors.put(operation, new AtomicLong());
+        }
+    }
+
+    private static Histogram histogram() {
+        return new ConcurrentHistogram(HIGHEST_MICROS, 3);
+    }
+
+    void record(Operation operation, long latencyNanos, boolean succeeded) {
+        long micros = Math.min(HIGHEST_MICROS, Math.max(1, latencyNanos / 1000));
+        total.recordValue(micros);
+        byOperation.get(operation).recordValue(micros);
+        if (!succeeded) {
+            errors.get(operation).incrementAndGet();
+        }
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    long count() {
+        return total.getTotalCount();
+    }
+
+    long errors() {
+        return errors.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    double errorRate() {
+        return count() == 0 ? 0 : (double) errors() / count();
+    }
+
+    double throughput() {
+        return elapsedNanos == 0 ? 0 : count() * 1e9 / elapsedNanos;
+    }
+
+    double percentileMillis(double percentile) {
+        return total.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    void print(PrintStream out) {
+        out.printf("%-8s %9s %7s %10s %10s %10s %10s%n", "", "requests", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        byOperation.forEach((operation, histogram) -> {
+            if (histogram.getTotalCount() > 0) {
+                line(out, operation.name(), histogram, errors.get(operation).get());
+            }
+        });
+        line(out, "ALL", total, errors());
+        out.printf("throughput %.1f req/s%n", throughput());
+    }
+
+    private static void line(PrintStream out, String label, Histogram histogram, long errors) {
+        out.printf(Locale.ROOT, "%-8s %9d %7d %10.2f %10.2f %10.2f %10.2f%n", label, histogram.getTotalCount(), errors,
+                histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                histogram.getMaxValue() / MICROS_PER_MILLI);
+    }
+
+    /**
+     * Writes one {@code .hgrm} percentile distribution in milliseconds per
+     * operation, readable by HdrHistogram's plotter.
+     */
+    void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        write(directory.resolve("all.hgrm"), total);
+        for (Map.Entry<Operation, Histogram> entry : byOperation.entrySet()) {
+            if (entry.getValue().getTotalCount() > 0) {
+                write(directory.resolve(entry.getKey().name().toLowerCase(Locale.ROOT) + ".hgrm"), entry.getValue());
+            }
+        }
+    }
+
+    private static void write(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+}
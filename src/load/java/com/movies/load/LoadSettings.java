@@ -0,0 +1,64 @@
+package com.movies.load;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Load test parameters and thresholds, read from {@code movies.load.*} system
+ * properties so a run can be tuned from the Maven command line.
+ */
+record LoadSettings(
+        int rate,
+        int warmupSeconds,
+        int durationSeconds,
+        int connections,
+        int catalogSize,
+        Map<Operation, Integer> mix,
+        double p99Millis,
+        double minThroughput,
+        double maxErrorRate,
+        Path report) {
+
+    static final String DEFAULT_MIX = "get=60,list=20,post=10,put=5,delete=5";
+
+    static LoadSettings fromSystemProperties() {
+        int rate = Integer.getInteger("movies.load.rate", 200);
+        String throughput = System.getProperty("movies.load.slo.throughput");
+        return new LoadSettings(
+                rate,
+                Integer.getInteger("movies.load.warmup", 10),
+                Integer.getInteger("movies.load.duration", 30),
+                Integer.getInteger("movies.load.connections", 64),
+                Integer.getInteger("movies.load.catalog-size", 10000),
+                parseMix(System.getProperty("movies.load.mix", DEFAULT_MIX)),
+                Double.parseDouble(System.getProperty("movies.load.slo.p99", "100")),
+                throughput == null ? rate * 0.95 : Double.parseDouble(throughput),
+                Double.parseDouble(System.getProperty("movies.load.slo.error-rate", "0.001")),
+                Path.of(System.getProperty("movies.load.report", "target/load-test")));
+    }
+
+    /**
+     * Parses weights such as {@code get=60,post=10}. Operations left out are
+     * not sent.
+     */
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Malformed movies.load.mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight in movies.load.mix: " + entry);
+            }
+            weights.put(Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("movies.load.mix has no positive weight: " + mix);
+        }
+        return weights;
+    }
+}
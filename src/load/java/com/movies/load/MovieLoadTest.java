@@ -0,0 +1,73 @@
+package com.movies.load;
+
+import com.movies.bulk.MovieImporter;
+import com.movies.dto.BulkImportReport;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Entry point of the {@code load-test} profile. Seeds the H2 catalog through
+ * the bulk importer, so the caches, counters and search index see it like any
+ * other write, then drives the configured request mix over HTTP at a fixed
+ * rate: first a warmup whose results are dropped, then the measured run.
+ * <p>
+ * The build fails when the p99 latency of the whole mix, the achieved
+ * throughput or the share of unexpected statuses cross their thresholds. The
+ * histograms are written as {@code .hgrm} files to {@code movies.load.report}.
+ * See {@link LoadSettings} for the properties.
+ */
+@QuarkusTest
+public class MovieLoadTest {
+
+    @Inject
+    MovieImporter movieImporter;
+
+    @TestHTTPResource("/movies")
+    URI movies;
+
+    @Test
+    void meetsLatencyAndThroughputObjectives() throws Exception {
+        LoadSettings settings = LoadSettings.fromSystemProperties();
+        OpenLoopDriver driver = new OpenLoopDriver(movies, settings, seed(settings.catalogSize()));
+
+        System.out.printf("Warming up for %d s at %d req/s%n", settings.warmupSeconds(), settings.rate());
+        driver.run(settings.warmupSeconds());
+        System.out.printf("Measuring for %d s at %d req/s over %d connections, mix %s%n",
+                settings.durationSeconds(), settings.rate(), settings.connections(), settings.mix());
+        LoadResults results = driver.run(settings.durationSeconds());
+        results.print(System.out);
+        results.write(settings.report());
+
+        assertAll(
+                () -> assertTrue(results.percentileMillis(99) <= settings.p99Millis(),
+                        String.format("p99 %.2f ms above %.2f ms", results.percentileMillis(99), settings.p99Millis())),
+                () -> assertTrue(results.throughput() >= settings.minThroughput(),
+                        String.format("throughput %.1f req/s below %.1f req/s", results.throughput(), settings.minThroughput())),
+                () -> assertTrue(results.errorRate() <= settings.maxErrorRate(),
+                        String.format("%d unexpected statuses out of %d requests", results.errors(), results.count())));
+    }
+
+    private List<Long> seed(int size) throws Exception {
+        StringBuilder movies = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            movies.append("{\"title\":\"Seeded ").append(i)
+                    .append("\",\"description\":\"Generated description of movie ").append(i)
+                    .append("\",\"director\":\"Director ").append(i % 1000)
+                    .append("\",\"country\":\"Country ").append(i % 100)
+                    .append("\"}\n");
+        }
+        BulkImportReport report = movieImporter.importMovies(
+                new ByteArrayInputStream(movies.toString().getBytes(StandardCharsets.UTF_8)));
+        assertEquals(0, report.getFailed());
+        return report.getItems().stream().map(BulkImportReport.Item::getId).toList();
+    }
+}
@@ -0,0 +1,113 @@
+package com.movies.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Sends requests on a fixed schedule, whatever the server does. Request
+ * {@code i} is due at {@code start + i / rate} and its latency is measured from
+ * that due time, not from when a connection picked it up. A stalled server
+ * therefore shows up as the queueing delay every request scheduled behind the
+ * stall would have seen, instead of being hidden by clients that simply stop
+ * sending (coordinated omission).
+ * <p>
+ * Requests are handed to {@code connections} client threads, each issuing one
+ * request at a time. The operation and target of every request are picked on
+ * the scheduling thread from a fixed seed, so runs are repeatable. Deletes take
+ * ids from the end of the live range and reads and updates pick below it.
+ */
+final class OpenLoopDriver {
+
+    private final HttpClient client;
+    private final URI movies;
+    private final LoadSettings settings;
+    private final Operation[] choices;
+    private final long[] ids;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private int live;
+    private long sequence;
+
+    OpenLoopDriver(URI movies, LoadSettings settings, List<Long> ids) {
+        this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        this.movies = movies;
+        this.settings = settings;
+        this.choices = choices(settings.mix());
+        this.ids = ids.stream().mapToLong(Long::longValue).toArray();
+        this.live = this.ids.length;
+    }
+
+    private static Operation[] choices(Map<Operation, Integer> mix) {
+        return mix.entrySet().stream()
+                .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(Operation[]::new);
+    }
+
+    LoadResults run(int seconds) throws InterruptedException {
+        LoadResults results = new LoadResults();
+        ExecutorService connections = Executors.newFixedThreadPool(settings.connections());
+        long period = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        long requests = (long) settings.rate() * seconds;
+        long start = System.nanoTime();
+        try {
+            for (long i = 0; i < requests; i++) {
+                long due = start + i * period;
+                long wait;
+                while ((wait = due - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Operation operation = next();
+                long target = target(operation);
+                long number = sequence++;
+                connections.execute(() -> send(results, operation, target, number, due));
+            }
+        } finally {
+            connections.shutdown();
+        }
+        if (!connections.awaitTermination(1, TimeUnit.MINUTES)) {
+            connections.shutdownNow();
+        }
+        results.finish(System.nanoTime() - start);
+        return results;
+    }
+
+    private Operation next() {
+        Operation operation = choices[random.nextInt(choices.length)];
+        if (live == 0 && operation != Operation.POST && operation != Operation.LIST) {
+            return Operation.POST;
+        }
+        return operation;
+    }
+
+    private long target(Operation operation) {
+        return switch (operation) {
+            case DELETE -> ids[--live];
+            case GET, PUT -> ids[random.nextInt(live)];
+            case LIST, POST -> 0;
+        };
+    }
+
+    private void send(LoadResults results, Operation operation, long id, long number, long due) {
+        boolean succeeded;
+        try {
+            int status = client.send(operation.request(movies, id, number), HttpResponse.BodyHandlers.discarding())
+                    .statusCode();
+            succeeded = operation.succeeded(status);
+        } catch (IOException e) {
+            succeeded = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        results.record(operation, System.nanoTime() - due, succeeded);
+    }
+}
@@ -0,0 +1,64 @@
+package com.movies.load;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.Arrays;
+
+/**
+ * The requests in a load mix. Each one knows the statuses that count as a
+ * success: under a concurrent mix a movie can be deleted between being picked
+ * and being read, and two updates of one movie can race on its version.
+ */
+enum Operation {
+
+    GET(200, 404) {
+        @Override
+        HttpRequest request(URI movies, long id, long sequence) {
+            return HttpRequest.newBuilder(URI.create(movies + "/" + id)).GET().build();
+        }
+    },
+    LIST(200) {
+        @Override
+        HttpRequest request(URI movies, long id, long sequence) {
+            return HttpRequest.newBuilder(URI.create(movies + "?limit=20")).GET().build();
+        }
+    },
+    POST(201) {
+        @Override
+        HttpRequest request(URI movies, long id, long sequence) {
+            return json(HttpRequest.newBuilder(movies), "POST",
+                    "{\"title\":\"Load " + sequence + "\",\"director\":\"Load director\",\"country\":\"Loadland\"}");
+        }
+    },
+    PUT(200, 404, 412) {
+        @Override
+        HttpRequest request(URI movies, long id, long sequence) {
+            return json(HttpRequest.newBuilder(URI.create(movies + "/" + id + "/renamed")), "PUT",
+                    "{\"title\":\"Renamed " + sequence + "\"}");
+        }
+    },
+    DELETE(204, 404) {
+        @Override
+        HttpRequest request(URI movies, long id, long sequence) {
+            return HttpRequest.newBuilder(URI.create(movies + "/" + id)).DELETE().build();
+        }
+    };
+
+    private final int[] expected;
+
+    Operation(int... expected) {
+        this.expected = expected;
+    }
+
+    abstract HttpRequest request(URI movies, long id, long sequence);
+
+    boolean succeeded(int status) {
+        return Arrays.stream(expected).anyMatch(candidate -> candidate == status);
+    }
+
+    private static HttpRequest json(HttpRequest.Builder builder, String method, String body) {
+        return builder.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.movies.bulk;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.movies.dto.BulkImportReport;
+import com.movies.entities.Movie;
+import com.movies.events.MovieChange;
+import com.movies.repository.MovieRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Imports movies from a JSON array or an NDJSON stream without holding the
+ * whole request in memory. Movies are persisted {@code movies.bulk.batch-size}
+ * at a time, each batch in its own transaction, so Hibernate sends them as JDBC
+ * batches and ids come from the pooled sequence. A failing batch is rolled back
+ * and reported without affecting the others. Client supplied ids are ignored.
+ * <p>
+ * Parsing cannot resume after malformed JSON, so the import stops at the first
+ * malformed movie. The report says where, and the movies after it are not
+ * processed.
+ */
+@ApplicationScoped
+public class MovieImporter {
+
+    private static final Logger LOG = Logger.getLogger(MovieImporter.class);
+    static final String ROLLED_BACK = "Batch rolled back, see the server log";
+
+    @Inject
+    MovieRepository movieRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    Event<MovieChange> movieChanges;
+
+    @ConfigProperty(name = "movies.bulk.batch-size", defaultValue = "500")
+    int batchSize;
+
+    public BulkImportReport importMovies(InputStream input) throws IOException {
+        BulkImportReport report = new BulkImportReport();
+        ObjectReader reader = objectMapper.readerFor(Movie.class);
+        List<Pending> batch = new ArrayList<>(batchSize);
+        int index = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token != null && token != JsonToken.END_ARRAY) {
+                Movie movie;
+                try {
+                    movie = reader.readValue(parser);
+                } catch (JsonProcessingException e) {
+                    report.failed(index, "Malformed movie: " + e.getOriginalMessage());
+                    report.stoppedAt(index);
+                    break;
+                }
+                if (movie.getTitle() == null || movie.getTitle().isBlank()) {
+                    report.failed(index, "title is required");
+                } else {
+                    movie.setId(null);
+                    batch.add(new Pending(index, movie));
+                    if (batch.size() == batchSize) {
+                        persist(batch, report);
+                        batch.clear();
+                    }
+                }
+                index++;
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+            report.failed(index, "Malformed request: " + e.getOriginalMessage());
+            report.stoppedAt(index);
+        }
+        if (!batch.isEmpty()) {
+            persist(batch, report);
+        }
+        return report;
+    }
+
+    private void persist(List<Pending> batch, BulkImportReport report) {
+        try {
+            QuarkusTransaction.requiringNew().run(() -> {
+                for (Pending pending : batch) {
+                    movieRepository.persist(pending.movie());
+                    movieChanges.fire(MovieChange.created(pending.movie()));
+                }
+                movieRepository.flush();
+                movieRepository.clearSession();
+            });
+            for (Pending pending : batch) {
+                report.succeeded(pending.index(), pending.movie().getId());
+            }
+        } catch (RuntimeException e) {
+            LOG.warnf(e, "Bulk import batch starting at item %d rolled back", batch.get(0).index());
+            for (Pending pending : batch) {
+                report.failed(pending.index(), ROLLED_BACK);
+            }
+        }
+    }
+
+    private record Pending(int index, Movie movie) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.movies.bulk;
+
+import com.movies.dto.BatchPatchReport;
+import com.movies.dto.MoviePatch;
+import com.movies.entities.Movie;
+import com.movies.events.MovieChange;
+import com.movies.repository.MovieRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies many partial updates in one go. The movies are read with a single
+ * multi-id load, patched in memory and written by one flush, which Hibernate
+ * sends as JDBC batches of {@code quarkus.hibernate-orm.jdbc.statement-batch-size}
+ * UPDATE statements instead of one round trip per movie. The version column is
+ * still checked on every row.
+ * <p>
+ * Must run inside a transaction. A patch carrying a {@code version} that is no
+ * longer current is reported as a conflict and skipped, a concurrent write
+ * caught at flush rolls the whole batch back with an
+ * {@link jakarta.persistence.OptimisticLockException}. A patch that leaves every
+ * field as it was writes nothing and is reported as unchanged, without a
+ * {@link MovieChange}.
+ */
+@ApplicationScoped
+public class MoviePatcher {
+
+    @Inject
+    MovieRepository movieRepository;
+
+    @Inject
+    Event<MovieChange> movieChanges;
+
+    /**
+     * @param patches valid patches with distinct ids
+     */
+    public BatchPatchReport patch(List<MoviePatch> patches) {
+        Map<Long, Movie> movies = movieRepository
+                .findByIds(patches.stream().map(MoviePatch::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(Movie::getId, Function.identity()));
+
+        Movie[] before = new Movie[patches.size()];
+        for (int i = 0; i < patches.size(); i++) {
+            MoviePatch patch = patches.get(i);
+            Movie movie = movies.get(patch.getId());
+            if (movie != null && (patch.getVersion() == null || patch.getVersion().equals(movie.getVersion()))) {
+                before[i] = MovieChange.copy(movie);
+                patch.applyTo(movie);
+            }
+        }
+        movieRepository.flush();
+
+        BatchPatchReport report = new BatchPatchReport();
+        for (int i = 0; i < patches.size(); i++) {
+            Long id = patches.get(i).getId();
+            Movie movie = movies.get(id);
+            if (movie == null) {
+                report.notFound(id);
+            } else if (before[i] == null) {
+                report.conflict(id, movie.getVersion());
+            } else if (!changed(before[i], movie)) {
+                report.unchanged(id, movie.getVersion());
+            } else {
+                movieChanges.fire(MovieChange.updated(before[i], movie));
+                report.updated(id, movie.getVersion());
+            }
+        }
+        return report;
+    }
+
+    private static boolean changed(Movie before, Movie after) {
+        return !Objects.equals(before.getTitle(), after.getTitle())
+                || !Objects.equals(before.getDescription(), after.getDescription())
+                || !Objects.equals(before.getDirector(), after.getDirector())
+                || !Objects.equals(before.getCountry(), after.getCountry());
+    }
+}
@@ -0,0 +1,55 @@
+package com.movies.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+@Schema(name = "CacheStatistics", description = "Hit, miss and eviction counters of a cache or cache region")
+public class CacheStatistics {
+
+    private final String name;
+    @Schema(description = "Number of entries, absent when the cache does not track it")
+    private final Long size;
+    private final long hits;
+    private final long misses;
+    @Schema(description = "Number of evicted entries, absent when the cache does not track it")
+    private final Long evictions;
+
+    public CacheStatistics(String name, Long size, long hits, long misses, Long evictions) {
+        this.name = name;
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    static CacheStatistics of(String name, Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return new CacheStatistics(name, cache.estimatedSize(), stats.hitCount(), stats.missCount(), stats.evictionCount());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public Long getEvictions() {
+        return evictions;
+    }
+
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,121 @@
+package com.movies.cache;
+
+import com.movies.repository.MovieRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Loads the hot part of the catalog into {@link MovieCache} and the
+ * second-level cache right after startup, so the first requests after a
+ * restart do not each pay a database round trip. Readiness stays DOWN until
+ * the preload has finished.
+ * <p>
+ * The hot set is the ids {@link MovieCache} used most, saved to
+ * {@code movies.preload.hot-set-file} at shutdown. Without that file the
+ * {@code movies.preload.size} most recent movies are loaded instead.
+ */
+@ApplicationScoped
+public class CatalogPreloader {
+
+    private static final Logger LOG = Logger.getLogger(CatalogPreloader.class);
+    private static final int CHUNK_SIZE = 500;
+
+    @Inject
+    MovieRepository movieRepository;
+
+    @Inject
+    MovieCache movieCache;
+
+    @Inject
+    ManagedExecutor executor;
+
+    @ConfigProperty(name = "movies.preload.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "movies.preload.size", defaultValue = "10000")
+    int size;
+
+    @ConfigProperty(name = "movies.preload.hot-set-file")
+    Optional<Path> hotSetFile;
+
+    private volatile boolean ready;
+    private volatile int preloaded;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            ready = true;
+            return;
+        }
+        executor.runAsync(this::preload);
+    }
+
+    void preload() {
+        long start = System.nanoTime();
+        try {
+            List<Long> ids = hotIds();
+            for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+                preloaded += QuarkusTransaction.requiringNew().call(() -> movieCache.findByIds(chunk).size());
+            }
+            LOG.infof("Preloaded %d movies in %d ms", preloaded,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            LOG.warn("Catalog preload failed, starting with cold caches", e);
+        } finally {
+            ready = true;
+        }
+    }
+
+    private List<Long> hotIds() {
+        if (hotSetFile.isPresent() && Files.isReadable(hotSetFile.get())) {
+            try (Stream<String> lines = Files.lines(hotSetFile.get())) {
+                return lines.filter(line -> !line.isBlank())
+                        .map(line -> Long.valueOf(line.trim()))
+                        .limit(size)
+                        .toList();
+            } catch (IOException | NumberFormatException e) {
+                LOG.warnf(e, "Ignoring unreadable hot set %s", hotSetFile.get());
+            }
+        }
+        return QuarkusTransaction.requiringNew().call(() -> movieRepository.findLatestIds(size));
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (hotSetFile.isEmpty()) {
+            return;
+        }
+        List<Long> hottest = movieCache.hottestIds(size);
+        if (hottest.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(hotSetFile.get().toAbsolutePath().getParent());
+            Files.write(hotSetFile.get(), hottest.stream().map(String::valueOf).toList());
+        } catch (IOException e) {
+            LOG.warnf(e, "Could not save the hot set to %s", hotSetFile.get());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int preloaded() {
+        return preloaded;
+    }
+}
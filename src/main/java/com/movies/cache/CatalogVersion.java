@@ -0,0 +1,43 @@
+package com.movies.cache;
+
+import com.movies.events.MovieChange;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the whole catalog, used as the ETag of collection responses. It
+ * changes after every committed {@link MovieChange}, and its startup epoch
+ * keeps values from a previous run from matching.
+ * <p>
+ * The observer runs after the derived structures are updated, so a reader that
+ * sees the new version also sees them. Observers that act on the new version,
+ * such as snapshot rebuilds, run at {@link #AFTER}, and the change feed
+ * publishes at {@code Integer.MAX_VALUE}, after all of them. Readers
+ * take the version before loading data. A response may then carry newer data
+ * under an older tag, which only costs the client one extra full response.
+ */
+@ApplicationScoped
+public class CatalogVersion {
+
+    /**
+     * Observer priority of this class. Observers of {@link MovieChange} that
+     * read the new version use {@link #AFTER}.
+     */
+    public static final int PRIORITY = Integer.MAX_VALUE - 100;
+    public static final int AFTER = PRIORITY + 1;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong changes = new AtomicLong();
+
+    void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) @Priority(PRIORITY) MovieChange change) {
+        changes.incrementAndGet();
+    }
+
+    public String current() {
+        return epoch + "." + changes.get();
+    }
+}
@@ -0,0 +1,187 @@
+package com.movies.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.movies.entities.Movie;
+import com.movies.events.MovieChange;
+import com.movies.replica.ReplicaRouter;
+import com.movies.repository.MovieRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache in front of {@link MovieRepository} for point lookups,
+ * with one index by id and one by title. Entries are detached copies, so a hit
+ * touches neither the database nor the persistence context.
+ * <p>
+ * Entries are evicted by size and age, and invalidated from committed
+ * {@link MovieChange} events. A lookup that raced with an invalidation does
+ * not store its result, so a stale row is never cached after a write commits.
+ * Lookups that fill the cache never read from a replica that is behind, see
+ * {@link ReplicaRouter#upToDate}.
+ */
+@ApplicationScoped
+public class MovieCache {
+
+    @Inject
+    MovieRepository movieRepository;
+
+    @Inject
+    ReplicaRouter replicaRouter;
+
+    @ConfigProperty(name = "movies.cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "movies.cache.maximum-size", defaultValue = "10000")
+    long maximumSize;
+
+    @ConfigProperty(name = "movies.cache.expire-after-write", defaultValue = "10M")
+    Duration expireAfterWrite;
+
+    private final AtomicLong invalidations = new AtomicLong();
+    private Cache<Long, Movie> byId;
+    private Cache<String, Movie> byTitle;
+
+    @PostConstruct
+    void init() {
+        byId = newCache();
+        byTitle = newCache();
+    }
+
+    private <K> Cache<K, Movie> newCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Movie> findById(Long id) {
+        if (!enabled) {
+            return movieRepository.findByIdOptional(id);
+        }
+        Movie cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return load(() -> movieRepository.findByIdOptional(id));
+    }
+
+    /**
+     * Returns the cached copy only, never touching the database.
+     */
+    public Optional<Movie> peekById(Long id) {
+        return enabled ? Optional.ofNullable(byId.getIfPresent(id)) : Optional.empty();
+    }
+
+    public Optional<Movie> findByTitle(String title) {
+        if (!enabled) {
+            return movieRepository.findByTitle(title);
+        }
+        Movie cached = byTitle.getIfPresent(title);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return load(() -> movieRepository.findByTitle(title));
+    }
+
+    /**
+     * Looks every id up in the cache first and loads only the misses, with a
+     * single repository call.
+     *
+     * @return the movies found by id, ids that do not exist are absent
+     */
+    public Map<Long, Movie> findByIds(Collection<Long> ids) {
+        if (!enabled) {
+            return byId(movieRepository.findByIds(ids));
+        }
+        Map<Long, Movie> found = new HashMap<>(byId.getAllPresent(ids));
+        List<Long> missing = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            long seen = invalidations.get();
+            for (Movie movie : replicaRouter.upToDate(() -> movieRepository.findByIds(missing))) {
+                found.put(movie.getId(), movie);
+                store(MovieChange.copy(movie), seen);
+            }
+        }
+        return found;
+    }
+
+    private static Map<Long, Movie> byId(List<Movie> movies) {
+        Map<Long, Movie> found = new HashMap<>();
+        for (Movie movie : movies) {
+            found.put(movie.getId(), movie);
+        }
+        return found;
+    }
+
+    private Optional<Movie> load(Supplier<Optional<Movie>> loader) {
+        long seen = invalidations.get();
+        Optional<Movie> loaded = replicaRouter.upToDate(loader);
+        loaded.ifPresent(movie -> store(MovieChange.copy(movie), seen));
+        return loaded;
+    }
+
+    private void store(Movie copy, long seen) {
+        if (invalidations.get() != seen) {
+            return;
+        }
+        byId.put(copy.getId(), copy);
+        if (copy.getTitle() != null) {
+            byTitle.put(copy.getTitle(), copy);
+        }
+        if (invalidations.get() != seen) {
+            byId.invalidate(copy.getId());
+            invalidateTitle(copy);
+        }
+    }
+
+    void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) MovieChange change) {
+        invalidations.incrementAndGet();
+        byId.invalidate(change.getId());
+        invalidateTitle(change.getBefore());
+        invalidateTitle(change.getAfter());
+    }
+
+    private void invalidateTitle(Movie movie) {
+        if (movie != null && movie.getTitle() != null) {
+            byTitle.invalidate(movie.getTitle());
+        }
+    }
+
+    /**
+     * @return up to {@code limit} cached ids, most frequently used first
+     */
+    public List<Long> hottestIds(int limit) {
+        return byId.policy().eviction()
+                .map(eviction -> List.copyOf(eviction.hottest(limit).keySet()))
+                .orElse(List.of());
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        byId.invalidateAll();
+        byTitle.invalidateAll();
+    }
+
+    public CacheStatistics idStatistics() {
+        return CacheStatistics.of("movies-by-id", byId);
+    }
+
+    public CacheStatistics titleStatistics() {
+        return CacheStatistics.of("movies-by-title", byTitle);
+    }
+}
@@ -0,0 +1,98 @@
+package com.movies.cache;
+
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Response;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A response body encoded once as JSON, with gzip and brotli variants when
+ * they are worth it, and the headers of the response it was taken from. The
+ * variant is picked per request from {@code Accept-Encoding}.
+ */
+public final class ResponseSnapshot {
+
+    static final String BROTLI = "br";
+    static final String GZIP = "gzip";
+
+    private final String version;
+    private final MultivaluedMap<String, Object> headers;
+    private final byte[] identity;
+    private final byte[] gzip;
+    private final byte[] brotli;
+
+    ResponseSnapshot(String version, MultivaluedMap<String, Object> headers, byte[] identity, byte[] gzip, byte[] brotli) {
+        this.version = version;
+        this.headers = headers;
+        this.identity = identity;
+        this.gzip = gzip;
+        this.brotli = brotli;
+    }
+
+    /**
+     * @return the catalog version the body was loaded at
+     */
+    public String version() {
+        return version;
+    }
+
+    int weight() {
+        return identity.length + (gzip == null ? 0 : gzip.length) + (brotli == null ? 0 : brotli.length);
+    }
+
+    /**
+     * Builds a 200 with the smallest variant the client accepts. Compressed
+     * variants are always smaller than the identity body.
+     */
+    public Response.ResponseBuilder respond(String acceptEncoding) {
+        String coding = negotiate(acceptEncoding, brotli != null, gzip != null);
+        Response.ResponseBuilder response = Response.ok()
+                .replaceAll(headers)
+                .type(MediaType.APPLICATION_JSON_TYPE)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (coding == null) {
+            return response.entity(identity);
+        }
+        return response.entity(BROTLI.equals(coding) ? brotli : gzip)
+                .header(HttpHeaders.CONTENT_ENCODING, coding);
+    }
+
+    /**
+     * Picks the accepted coding with the highest quality, brotli on a tie.
+     *
+     * @return {@code br}, {@code gzip}, or {@code null} for the identity body
+     */
+    static String negotiate(String acceptEncoding, boolean brotli, boolean gzip) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+        Map<String, Double> qualities = new HashMap<>();
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            qualities.put(coding, quality);
+        }
+        double any = qualities.getOrDefault("*", 0.0);
+        double brotliQuality = brotli ? qualities.getOrDefault(BROTLI, any) : 0;
+        double gzipQuality = gzip ? qualities.getOrDefault(GZIP, any) : 0;
+        if (brotliQuality > 0 && brotliQuality >= gzipQuality) {
+            return BROTLI;
+        }
+        return gzipQuality > 0 ? GZIP : null;
+    }
+}
@@ -0,0 +1,223 @@
+package com.movies.cache;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.movies.events.MovieChange;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Priority;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoded catalog responses keyed by endpoint and parameters, so a repeated
+ * read skips the query, Jackson and compression, and is answered on the I/O
+ * thread. Each snapshot remembers the {@link CatalogVersion} it was loaded at
+ * and is only served while that version is current.
+ * <p>
+ * After a committed {@link MovieChange}, one background thread reloads the
+ * stale snapshots that were served since their last build and drops the
+ * others. Entries are bounded by the total size of their encoded variants.
+ */
+@ApplicationScoped
+public class ResponseSnapshots {
+
+    private static final Logger LOG = Logger.getLogger(ResponseSnapshots.class);
+    private static final int MIN_COMPRESSED_SIZE = 1024;
+    private static final int BROTLI_QUALITY = 9;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    CatalogVersion catalogVersion;
+
+    @ConfigProperty(name = "movies.snapshots.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "movies.snapshots.maximum-weight", defaultValue = "64M")
+    MemorySize maximumWeight;
+
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private Cache<String, Entry> snapshots;
+    private ExecutorService rebuilder;
+    private boolean brotli;
+
+    @PostConstruct
+    void init() {
+        snapshots = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight.asLongValue())
+                .weigher((String key, Entry entry) -> entry.snapshot().weight())
+                .recordStats()
+                .build();
+        rebuilder = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "movies-snapshots");
+            thread.setDaemon(true);
+            return thread;
+        });
+        brotli = Brotli4jLoader.isAvailable();
+        if (!brotli) {
+            LOG.warn("Brotli is not available on this platform, snapshots are only compressed with gzip");
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * @return the snapshot for {@code key} if it was loaded at {@code version}
+     */
+    public Optional<ResponseSnapshot> current(String key, String version) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Entry entry = snapshots.getIfPresent(key);
+        if (entry == null || !entry.snapshot().version().equals(version)) {
+            return Optional.empty();
+        }
+        entry.used().set(true);
+        return Optional.of(entry.snapshot());
+    }
+
+    /**
+     * Snapshots a successful response loaded at {@code version}. The loader is
+     * kept to rebuild the snapshot after later writes.
+     *
+     * @return the snapshot, or empty when snapshots are disabled or the response is not a 200
+     */
+    public Optional<ResponseSnapshot> store(String key, String version, Response response, Supplier<Response> loader) {
+        if (!enabled || response.getStatus() != Response.Status.OK.getStatusCode()) {
+            return Optional.empty();
+        }
+        ResponseSnapshot snapshot = encode(version, response);
+        snapshots.put(key, new Entry(snapshot, loader, new AtomicBoolean()));
+        return Optional.of(snapshot);
+    }
+
+    /**
+     * Runs after {@link CatalogVersion} counted the change, so the rebuild sees
+     * the version that makes the served snapshots stale.
+     */
+    void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) @Priority(CatalogVersion.AFTER) MovieChange change) {
+        if (enabled && rebuildScheduled.compareAndSet(false, true)) {
+            rebuilder.execute(this::rebuild);
+        }
+    }
+
+    /**
+     * Runs until a whole pass saw no newer catalog version, so writes that
+     * commit during a pass are picked up by the next one.
+     */
+    private void rebuild() {
+        String version;
+        do {
+            rebuildScheduled.set(false);
+            version = catalogVersion.current();
+            for (Map.Entry<String, Entry> cached : snapshots.asMap().entrySet()) {
+                Entry entry = cached.getValue();
+                if (entry.snapshot().version().equals(version)) {
+                    continue;
+                }
+                if (!entry.used().get()) {
+                    snapshots.asMap().remove(cached.getKey(), entry);
+                    continue;
+                }
+                try {
+                    String loadedAt = version;
+                    Response response = QuarkusTransaction.requiringNew().call(() -> entry.loader().get());
+                    if (response.getStatus() == Response.Status.OK.getStatusCode()) {
+                        snapshots.asMap().replace(cached.getKey(), entry,
+                                new Entry(encode(loadedAt, response), entry.loader(), new AtomicBoolean()));
+                    } else {
+                        snapshots.asMap().remove(cached.getKey(), entry);
+                    }
+                } catch (RuntimeException e) {
+                    LOG.warnf(e, "Could not rebuild the %s snapshot", cached.getKey());
+                    snapshots.asMap().remove(cached.getKey(), entry);
+                }
+            }
+        } while (!version.equals(catalogVersion.current()));
+    }
+
+    private ResponseSnapshot encode(String version, Response response) {
+        byte[] identity;
+        try {
+            identity = objectMapper.writeValueAsBytes(response.getEntity());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>(response.getHeaders());
+        headers.remove(HttpHeaders.CONTENT_TYPE);
+        headers.remove(HttpHeaders.ETAG);
+        if (identity.length < MIN_COMPRESSED_SIZE) {
+            return new ResponseSnapshot(version, headers, identity, null, null);
+        }
+        return new ResponseSnapshot(version, headers, identity,
+                smaller(gzip(identity), identity), brotli ? smaller(brotli(identity), identity) : null);
+    }
+
+    private static byte[] smaller(byte[] compressed, byte[] identity) {
+        return compressed.length < identity.length ? compressed : null;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] brotli(byte[] body) {
+        try {
+            return Encoder.compress(body, new Encoder.Parameters().setQuality(BROTLI_QUALITY));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void invalidateAll() {
+        snapshots.invalidateAll();
+    }
+
+    public CacheStatistics statistics() {
+        return CacheStatistics.of("response-snapshots", snapshots);
+    }
+
+    private record Entry(ResponseSnapshot snapshot, Supplier<Response> loader, AtomicBoolean used) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.movies.cache;
+
+import com.movies.repository.MovieRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-region view of the Hibernate second-level and query caches. Needs
+ * {@code quarkus.hibernate-orm.statistics=true}.
+ */
+@ApplicationScoped
+public class SecondLevelCache {
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    public List<CacheStatistics> regionStatistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        List<CacheStatistics> regions = new ArrayList<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            add(regions, region, statistics.getDomainDataRegionStatistics(region));
+        }
+        add(regions, MovieRepository.QUERY_CACHE_REGION, statistics.getQueryRegionStatistics(MovieRepository.QUERY_CACHE_REGION));
+        return regions;
+    }
+
+    private static void add(List<CacheStatistics> regions, String name, CacheRegionStatistics region) {
+        if (region == null) {
+            return;
+        }
+        long size = region.getElementCountInMemory();
+        regions.add(new CacheStatistics(name, size < 0 ? null : size, region.getHitCount(), region.getMissCount(), null));
+    }
+}
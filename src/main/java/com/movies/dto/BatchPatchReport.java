@@ -0,0 +1,92 @@
+package com.movies.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(name = "BatchPatchReport", description = "Outcome of a batch update, one entry per patch in request order")
+public class BatchPatchReport {
+
+    public enum Status {
+        UPDATED,
+        UNCHANGED,
+        NOT_FOUND,
+        CONFLICT
+    }
+
+    private int updated;
+    private int unchanged;
+    private int notFound;
+    private int conflicts;
+    private final List<Item> items = new ArrayList<>();
+
+    public void updated(Long id, Long version) {
+        updated++;
+        items.add(new Item(id, Status.UPDATED, version));
+    }
+
+    public void unchanged(Long id, Long version) {
+        unchanged++;
+        items.add(new Item(id, Status.UNCHANGED, version));
+    }
+
+    public void notFound(Long id) {
+        notFound++;
+        items.add(new Item(id, Status.NOT_FOUND, null));
+    }
+
+    public void conflict(Long id, Long version) {
+        conflicts++;
+        items.add(new Item(id, Status.CONFLICT, version));
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public int getNotFound() {
+        return notFound;
+    }
+
+    public int getConflicts() {
+        return conflicts;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    @Schema(name = "BatchPatchItem", description = "Result of the patch for one movie")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Item {
+
+        private final Long id;
+        private final Status status;
+        private final Long version;
+
+        Item(Long id, Status status, Long version) {
+            this.id = id;
+            this.status = status;
+            this.version = version;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        @Schema(description = "The version after the update, or the current version when unchanged or on a conflict")
+        public Long getVersion() {
+            return version;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.movies.dto;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(name = "BulkImportReport", description = "Outcome of a bulk import, one entry per submitted movie")
+public class BulkImportReport {
+
+    private int imported;
+    private int failed;
+    private Integer stoppedAt;
+    private final List<Item> items = new ArrayList<>();
+
+    public void succeeded(int index, Long id) {
+        imported++;
+        items.add(new Item(index, id, null));
+    }
+
+    public void failed(int index, String error) {
+        failed++;
+        items.add(new Item(index, null, error));
+    }
+
+    public void stoppedAt(int index) {
+        stoppedAt = index;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    @Schema(description = "Index of the malformed movie the import stopped at. The movies after it were not "
+            + "processed and have no item. Absent when the whole request was read")
+    public Integer getStoppedAt() {
+        return stoppedAt;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    @Schema(name = "BulkImportItem", description = "Result for the movie at a given position of the request")
+    public static class Item {
+
+        private final int index;
+        private final Long id;
+        private final String error;
+
+        Item(int index, Long id, String error) {
+            this.index = index;
+            this.id = id;
+            this.error = error;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.movies.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.movies.entities.Movie;
+import com.movies.events.MovieChange;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+@Schema(name = "ChangeEvent", description = "A committed write, as published on the change feed")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeEvent {
+
+    private final long sequence;
+    private final MovieChange.Type type;
+    private final Long id;
+    private final Movie movie;
+
+    public ChangeEvent(long sequence, MovieChange change) {
+        this.sequence = sequence;
+        this.type = change.getType();
+        this.id = change.getId();
+        this.movie = change.getAfter();
+    }
+
+    @Schema(description = "Position in the feed, also sent as the event id")
+    public long getSequence() {
+        return sequence;
+    }
+
+    public MovieChange.Type getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Schema(description = "The movie as written, absent for DELETED")
+    public Movie getMovie() {
+        return movie;
+    }
+}
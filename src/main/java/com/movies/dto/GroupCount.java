@@ -0,0 +1,23 @@
+package com.movies.dto;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+@Schema(name = "GroupCount", description = "Number of movies sharing a country or a director")
+public class GroupCount {
+
+    private final String key;
+    private final long count;
+
+    public GroupCount(String key, long count) {
+        this.key = key;
+        this.count = count;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
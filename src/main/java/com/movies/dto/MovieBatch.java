@@ -0,0 +1,64 @@
+package com.movies.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.movies.entities.Movie;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(name = "MovieBatch", description = "Movies fetched by id, one entry per requested id in request order")
+public class MovieBatch {
+
+    private int found;
+    private int missing;
+    private final List<Item> items = new ArrayList<>();
+
+    public void found(Movie movie) {
+        found++;
+        items.add(new Item(movie.getId(), movie));
+    }
+
+    public void missing(Long id) {
+        missing++;
+        items.add(new Item(id, null));
+    }
+
+    public int getFound() {
+        return found;
+    }
+
+    public int getMissing() {
+        return missing;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    @Schema(name = "MovieBatchItem", description = "The movie for a requested id, or a not found marker")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Item {
+
+        private final Long id;
+        private final Movie movie;
+
+        Item(Long id, Movie movie) {
+            this.id = id;
+            this.movie = movie;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public boolean isFound() {
+            return movie != null;
+        }
+
+        @Schema(description = "The movie, absent when no movie has this id")
+        public Movie getMovie() {
+            return movie;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.movies.dto;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * @param <T> {@code Movie} for the full view, {@link MovieSummary} for the summary view
+ */
+@Schema(name = "MoviePage", description = "One page of movies ordered by id")
+public class MoviePage<T> {
+
+    private final List<T> items;
+    @Schema(description = "Opaque cursor for the next page, absent on the last page")
+    private final String next;
+
+    public MoviePage(List<T> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNext() {
+        return next;
+    }
+}
@@ -0,0 +1,101 @@
+package com.movies.dto;
+
+import com.movies.entities.Movie;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * A partial update in JSON merge patch style: only the fields present in the
+ * request are changed, and a field sent as {@code null} is cleared. Jackson
+ * only calls the setters of present fields, which is how presence is tracked.
+ */
+@Schema(name = "MoviePatch", description = "Fields to change on a movie, absent fields are left as they are")
+public class MoviePatch {
+
+    private enum Field {
+        TITLE(Movie::setTitle),
+        DESCRIPTION(Movie::setDescription),
+        DIRECTOR(Movie::setDirector),
+        COUNTRY(Movie::setCountry);
+
+        private final BiConsumer<Movie, String> setter;
+
+        Field(BiConsumer<Movie, String> setter) {
+            this.setter = setter;
+        }
+    }
+
+    private Long id;
+    private Long version;
+    private final Map<Field, String> changes = new EnumMap<>(Field.class);
+
+    @Schema(description = "Movie to change, only read by the batch form")
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    @Schema(description = "Only apply the change if the movie is still at this version, only read by the batch form")
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getTitle() {
+        return changes.get(Field.TITLE);
+    }
+
+    public void setTitle(String title) {
+        changes.put(Field.TITLE, title);
+    }
+
+    public String getDescription() {
+        return changes.get(Field.DESCRIPTION);
+    }
+
+    public void setDescription(String description) {
+        changes.put(Field.DESCRIPTION, description);
+    }
+
+    public String getDirector() {
+        return changes.get(Field.DIRECTOR);
+    }
+
+    public void setDirector(String director) {
+        changes.put(Field.DIRECTOR, director);
+    }
+
+    public String getCountry() {
+        return changes.get(Field.COUNTRY);
+    }
+
+    public void setCountry(String country) {
+        changes.put(Field.COUNTRY, country);
+    }
+
+    /**
+     * @return why the patch cannot be applied, or {@code null} when it is valid
+     */
+    public String validate() {
+        if (changes.containsKey(Field.TITLE) && (getTitle() == null || getTitle().isBlank())) {
+            return "title must not be blank";
+        }
+        return null;
+    }
+
+    /**
+     * Sets the present fields on {@code movie}.
+     */
+    public void applyTo(Movie movie) {
+        changes.forEach((field, value) -> field.setter.accept(movie, value));
+    }
+}
@@ -0,0 +1,33 @@
+package com.movies.dto;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+/**
+ * Read-only listing row. Queries select these columns straight into this
+ * class, so no entity is hydrated, tracked or dirty-checked.
+ */
+@Schema(name = "MovieSummary", description = "Movie id, title and country, as shown in list views")
+public class MovieSummary {
+
+    private final Long id;
+    private final String title;
+    private final String country;
+
+    public MovieSummary(Long id, String title, String country) {
+        this.id = id;
+        this.title = title;
+        this.country = country;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+}
@@ -0,0 +1,18 @@
+package com.movies.dto;
+
+import java.util.Locale;
+
+/**
+ * Representation of movies in listings, selected with {@code ?view=}.
+ */
+public enum MovieView {
+    FULL,
+    SUMMARY;
+
+    /**
+     * Used by JAX-RS to convert the query parameter, case-insensitively.
+     */
+    public static MovieView fromString(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,27 @@
+package com.movies.dto;
+
+import com.movies.entities.Movie;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "SearchResults", description = "One page of movies ranked by relevance")
+public class SearchResults {
+
+    @Schema(description = "Number of movies matching the query")
+    private final int total;
+    private final List<Movie> items;
+
+    public SearchResults(int total, List<Movie> items) {
+        this.total = total;
+        this.items = items;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public List<Movie> getItems() {
+        return items;
+    }
+}
@@ -0,0 +1,30 @@
+package com.movies.dto;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+@Schema(name = "Suggestion", description = "A movie title completing the typed prefix")
+public class Suggestion {
+
+    private final Long id;
+    private final String title;
+    @Schema(description = "Whether the title only matches the prefix with one typo")
+    private final boolean fuzzy;
+
+    public Suggestion(Long id, String title, boolean fuzzy) {
+        this.id = id;
+        this.title = title;
+        this.fuzzy = fuzzy;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public boolean isFuzzy() {
+        return fuzzy;
+    }
+}
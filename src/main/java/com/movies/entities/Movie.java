@@ -1,24 +1,42 @@
 package com.movies.entities;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.quarkus.hibernate.orm.panache.Panache;
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
 @Entity
+@Cacheable
+@Table(indexes = {
+        @Index(name = "movie_title_idx", columnList = "title"),
+        @Index(name = "movie_director_idx", columnList = "director"),
+        @Index(name = "movie_country_id_idx", columnList = "country, id", unique = true)
+})
 @Schema(name = "Movie", description = "Movie representation")
 public class Movie {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movie_seq")
+    @SequenceGenerator(name = "movie_seq", sequenceName = "Movie_SEQ", allocationSize = 50)
     private Long id;
     @Schema(required = true)
     private String title;
     private String description;
     private String director;
     private String country;
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(readOnly = true, description = "Incremented on every update, exposed as the ETag")
+    private Long version;
 
     public Long getId() {
         return id;
@@ -59,4 +77,12 @@ public class Movie {
     public void setCountry(String country) {
         this.country = country;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,103 @@
+package com.movies.events;
+
+import com.movies.cache.CatalogVersion;
+import com.movies.dto.ChangeEvent;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Publishes committed {@link MovieChange} events to live subscribers, numbered
+ * from 1 in commit order. The last {@code movies.changes.replay-size} events
+ * are kept so a subscriber can resume after the sequence it saw last.
+ * <p>
+ * Publishing never waits for subscribers. Each one gets a bounded buffer of
+ * {@code movies.changes.subscriber-buffer} events beyond its replay, and a
+ * subscriber that lets it fill up is failed and dropped. It can then resume
+ * from its last sequence, as long as that is still in the replay buffer.
+ * <p>
+ * Events are published last, after {@link CatalogVersion} and the caches
+ * observed the change, so a subscriber that reads the movie back on an event
+ * sees the change.
+ */
+@ApplicationScoped
+public class ChangeFeed {
+
+    @ConfigProperty(name = "movies.changes.replay-size", defaultValue = "1000")
+    int replaySize;
+
+    @ConfigProperty(name = "movies.changes.subscriber-buffer", defaultValue = "256")
+    int subscriberBuffer;
+
+    private final Object lock = new Object();
+    private final Deque<ChangeEvent> replay = new ArrayDeque<>();
+    private final List<MultiEmitter<? super Item>> subscribers = new ArrayList<>();
+    private long sequence;
+
+    void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) @Priority(Integer.MAX_VALUE) MovieChange change) {
+        synchronized (lock) {
+            ChangeEvent event = new ChangeEvent(++sequence, change);
+            replay.addLast(event);
+            if (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            for (MultiEmitter<? super Item> subscriber : subscribers) {
+                subscriber.emit(new Item(event, false));
+            }
+        }
+    }
+
+    /**
+     * Streams the events after {@code lastSequence}, then live events. When
+     * {@code lastSequence} is no longer retained, or was never published by
+     * this instance, the stream starts with a reset item and replays
+     * everything retained: the subscriber missed changes and has to reload.
+     *
+     * @param lastSequence the last sequence the subscriber saw, {@code null} for live events only
+     */
+    public Multi<Item> subscribe(Long lastSequence) {
+        return Multi.createFrom().<Item>emitter(emitter -> {
+            synchronized (lock) {
+                if (lastSequence != null) {
+                    long oldest = replay.isEmpty() ? sequence + 1 : replay.getFirst().getSequence();
+                    boolean missed = lastSequence < oldest - 1 || lastSequence > sequence;
+                    if (missed) {
+                        emitter.emit(new Item(null, true));
+                    }
+                    for (ChangeEvent event : replay) {
+                        if (missed || event.getSequence() > lastSequence) {
+                            emitter.emit(new Item(event, false));
+                        }
+                    }
+                }
+                subscribers.add(emitter);
+            }
+            emitter.onTermination(() -> {
+                synchronized (lock) {
+                    subscribers.remove(emitter);
+                }
+            });
+        }, replaySize + subscriberBuffer + 1);
+    }
+
+    public long sequence() {
+        synchronized (lock) {
+            return sequence;
+        }
+    }
+
+    /**
+     * A published event, or the reset marker that precedes a replay with gaps.
+     */
+    public record Item(ChangeEvent event, boolean reset) {
+    }
+}
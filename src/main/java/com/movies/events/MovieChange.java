@@ -0,0 +1,76 @@
+package com.movies.events;
+
+import com.movies.entities.Movie;
+
+/**
+ * CDI event fired by {@code MovieResource} for every write. Observers that keep
+ * derived state (counters, caches, indexes) listen with
+ * {@code @Observes(during = TransactionPhase.AFTER_SUCCESS)} so they only see
+ * committed changes.
+ * <p>
+ * {@code before} and {@code after} are detached copies taken when the event is
+ * created, so later changes to the managed entity do not leak into observers.
+ */
+public class MovieChange {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Movie before;
+    private final Movie after;
+
+    private MovieChange(Type type, Movie before, Movie after) {
+        this.type = type;
+        this.before = before;
+        this.after = after;
+    }
+
+    public static MovieChange created(Movie movie) {
+        return new MovieChange(Type.CREATED, null, copy(movie));
+    }
+
+    public static MovieChange updated(Movie before, Movie after) {
+        return new MovieChange(Type.UPDATED, before, copy(after));
+    }
+
+    public static MovieChange deleted(Movie movie) {
+        return new MovieChange(Type.DELETED, copy(movie), null);
+    }
+
+    public static Movie copy(Movie movie) {
+        Movie copy = new Movie();
+        copy.setId(movie.getId());
+        copy.setTitle(movie.getTitle());
+        copy.setDescription(movie.getDescription());
+        copy.setDirector(movie.getDirector());
+        copy.setCountry(movie.getCountry());
+        copy.setVersion(movie.getVersion());
+        return copy;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return after != null ? after.getId() : before.getId();
+    }
+
+    /**
+     * @return the movie as it was before the write, {@code null} for {@link Type#CREATED}
+     */
+    public Movie getBefore() {
+        return before;
+    }
+
+    /**
+     * @return the movie as it was written, {@code null} for {@link Type#DELETED}
+     */
+    public Movie getAfter() {
+        return after;
+    }
+}
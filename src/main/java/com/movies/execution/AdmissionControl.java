@@ -0,0 +1,272 @@
+package com.movies.execution;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the blocking work admitted per endpoint, so that a slow database
+ * sheds load at once instead of queueing every request on the endpoint
+ * executor until they all time out.
+ * <p>
+ * Each endpoint has its own concurrency limit, adapted to the latency it
+ * observes (AIMD): a call slower than the target latency of its priority cuts
+ * the limit by {@code movies.admission.backoff-ratio}, a faster one while at
+ * least half of the limit is in use raises it by one. The limit stays between
+ * {@code movies.admission.min-limit} and {@code movies.admission.max-limit}.
+ * <p>
+ * All endpoints share {@code movies.admission.capacity} in-flight calls, of
+ * which a {@link Priority} may only fill its share. Listings and writes can
+ * never take the capacity left for point reads.
+ * <p>
+ * Limits and in-flight calls are published as {@code movies.admission.limit}
+ * and {@code movies.admission.in-flight}, refused calls are counted in
+ * {@code movies.admission.rejected}, all tagged with the endpoint and priority.
+ */
+@ApplicationScoped
+public class AdmissionControl {
+
+    public static final String LIMIT_GAUGE = "movies.admission.limit";
+    public static final String IN_FLIGHT_GAUGE = "movies.admission.in-flight";
+    public static final String REJECTED_COUNTER = "movies.admission.rejected";
+
+    /**
+     * Priority classes, each with the share of the capacity it may fill.
+     */
+    public enum Priority {
+        POINT(1.0),
+        WRITE(0.75),
+        LISTING(0.5);
+
+        final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+    }
+
+    /**
+     * Fails the stage of a refused call. Carries no stack trace, shedding
+     * must stay cheap.
+     */
+    public static final class Rejected extends RuntimeException {
+
+        Rejected(String endpoint) {
+            super("Too many concurrent calls to " + endpoint, null, false, false);
+        }
+    }
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "movies.admission.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "movies.admission.capacity", defaultValue = "64")
+    int capacity;
+
+    @ConfigProperty(name = "movies.admission.initial-limit", defaultValue = "16")
+    int initialLimit;
+
+    @ConfigProperty(name = "movies.admission.min-limit", defaultValue = "2")
+    int minLimit;
+
+    @ConfigProperty(name = "movies.admission.max-limit", defaultValue = "64")
+    int maxLimit;
+
+    @ConfigProperty(name = "movies.admission.backoff-ratio", defaultValue = "0.9")
+    double backoffRatio;
+
+    @ConfigProperty(name = "movies.admission.point.target-latency", defaultValue = "50ms")
+    Duration pointTarget;
+
+    @ConfigProperty(name = "movies.admission.listing.target-latency", defaultValue = "500ms")
+    Duration listingTarget;
+
+    @ConfigProperty(name = "movies.admission.write.target-latency", defaultValue = "250ms")
+    Duration writeTarget;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ConcurrentMap<String, Limit> limits = new ConcurrentHashMap<>();
+
+    /**
+     * A slot taken by an admitted call, to be released exactly once when the
+     * call completes.
+     */
+    public interface Permit {
+
+        void release();
+    }
+
+    private static final Permit UNLIMITED = () -> {
+    };
+
+    /**
+     * Runs {@code call} if the endpoint admits it, otherwise fails with
+     * {@link Rejected} without running it, see {@link #rejected}.
+     *
+     * @param endpoint low cardinality name of the endpoint, used as a metric tag
+     */
+    public <T> CompletionStage<T> admit(String endpoint, Priority priority, Supplier<CompletionStage<T>> call) {
+        Optional<Permit> permit = tryAcquire(endpoint, priority);
+        if (permit.isEmpty()) {
+            return CompletableFuture.failedFuture(new Rejected(endpoint));
+        }
+        try {
+            return call.get().whenComplete((result, failure) -> permit.get().release());
+        } catch (RuntimeException e) {
+            permit.get().release();
+            throw e;
+        }
+    }
+
+    /**
+     * @return a permit, or empty when the endpoint or its priority is at its limit
+     */
+    public Optional<Permit> tryAcquire(String endpoint, Priority priority) {
+        if (!enabled) {
+            return Optional.of(UNLIMITED);
+        }
+        Limit limit = limits.computeIfAbsent(endpoint, name -> new Limit(name, priority));
+        if (!acquire(inFlight, (int) (capacity * priority.share))) {
+            limit.reject("capacity");
+            return Optional.empty();
+        }
+        int started = limit.acquire();
+        if (started < 0) {
+            inFlight.decrementAndGet();
+            limit.reject("limit");
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        return Optional.of(new Permit() {
+
+            private boolean released;
+
+            @Override
+            public synchronized void release() {
+                if (!released) {
+                    released = true;
+                    inFlight.decrementAndGet();
+                    limit.release(System.nanoTime() - start, started);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return whether {@code failure} is a call refused by admission control
+     */
+    public static boolean rejected(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        return cause instanceof Rejected;
+    }
+
+    /**
+     * @return the current limit of an endpoint, or empty before its first call
+     */
+    public Optional<Integer> limit(String endpoint) {
+        return Optional.ofNullable(limits.get(endpoint)).map(Limit::current);
+    }
+
+    private static boolean acquire(AtomicInteger counter, int bound) {
+        while (true) {
+            int current = counter.get();
+            if (current >= bound) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private Duration target(Priority priority) {
+        return switch (priority) {
+            case POINT -> pointTarget;
+            case LISTING -> listingTarget;
+            case WRITE -> writeTarget;
+        };
+    }
+
+    /**
+     * The adaptive limit of one endpoint.
+     */
+    private final class Limit {
+
+        final String endpoint;
+        final Priority priority;
+        final long targetNanos;
+        final AtomicInteger inFlight = new AtomicInteger();
+        volatile double limit = initialLimit;
+
+        Limit(String endpoint, Priority priority) {
+            this.endpoint = endpoint;
+            this.priority = priority;
+            this.targetNanos = target(priority).toNanos();
+            Gauge.builder(LIMIT_GAUGE, this, Limit::current)
+                    .description("Concurrent calls an endpoint currently admits")
+                    .tag("endpoint", endpoint)
+                    .tag("priority", priority.name())
+                    .register(registry);
+            Gauge.builder(IN_FLIGHT_GAUGE, inFlight, AtomicInteger::get)
+                    .description("Calls admitted to an endpoint and not completed yet")
+                    .tag("endpoint", endpoint)
+                    .tag("priority", priority.name())
+                    .register(registry);
+        }
+
+        int current() {
+            return (int) limit;
+        }
+
+        /**
+         * @return the calls in flight before this one, or -1 when refused
+         */
+        int acquire() {
+            while (true) {
+                int current = inFlight.get();
+                if (current >= current()) {
+                    return -1;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return current;
+                }
+            }
+        }
+
+        synchronized void release(long latencyNanos, int started) {
+            inFlight.decrementAndGet();
+            if (latencyNanos > targetNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if ((started + 1) * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+
+        void reject(String reason) {
+            Counter.builder(REJECTED_COUNTER)
+                    .description("Calls refused with 503 because their endpoint or priority was at its limit")
+                    .tag("endpoint", endpoint)
+                    .tag("priority", priority.name())
+                    .tag("reason", reason)
+                    .register(registry)
+                    .increment();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.movies.execution;
+
+import io.quarkus.virtual.threads.VirtualThreads;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.eclipse.microprofile.context.ThreadContext;
+import org.jboss.logging.Logger;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * Runs the blocking part of {@code MovieResource} endpoints off the event loop.
+ * <p>
+ * {@code movies.execution.mode=worker} uses the bounded Quarkus worker pool.
+ * {@code virtual} starts one virtual thread per request, so requests waiting
+ * on the database no longer hold a pool thread. Concurrency is then bounded by
+ * the datasource pool ({@code quarkus.datasource.jdbc.max-size}). Virtual
+ * threads need a Java 21 runtime. On older JVMs {@code virtual} falls back to
+ * the worker pool with a warning, and {@link #mode()} reports {@code WORKER}.
+ */
+@ApplicationScoped
+public class EndpointExecutor {
+
+    private static final Logger LOG = Logger.getLogger(EndpointExecutor.class);
+
+    private static final int VIRTUAL_THREADS_RELEASE = 21;
+
+    public enum Mode {
+        WORKER,
+        VIRTUAL
+    }
+
+    @ConfigProperty(name = "movies.execution.mode", defaultValue = "worker")
+    Mode mode;
+
+    @Inject
+    ManagedExecutor workerExecutor;
+
+    @Inject
+    @VirtualThreads
+    ExecutorService virtualExecutor;
+
+    @Inject
+    ThreadContext threadContext;
+
+    @PostConstruct
+    void init() {
+        if (mode == Mode.VIRTUAL && !virtualThreadsAvailable()) {
+            LOG.warnf("movies.execution.mode=virtual needs Java %d, running on Java %d: falling back to the worker pool",
+                    VIRTUAL_THREADS_RELEASE, Runtime.version().feature());
+            mode = Mode.WORKER;
+        }
+        LOG.infof("Movie endpoints run in %s mode", mode);
+    }
+
+    static boolean virtualThreadsAvailable() {
+        return Runtime.version().feature() >= VIRTUAL_THREADS_RELEASE;
+    }
+
+    /**
+     * @return the mode endpoints actually run in, {@code WORKER} when virtual
+     * threads were configured but the runtime has none
+     */
+    public Mode mode() {
+        return mode;
+    }
+
+    public <T> CompletionStage<T> submit(Supplier<T> task) {
+        if (mode == Mode.VIRTUAL) {
+            return CompletableFuture.supplyAsync(threadContext.contextualSupplier(task), virtualExecutor);
+        }
+        return workerExecutor.supplyAsync(task);
+    }
+}
@@ -0,0 +1,111 @@
+package com.movies.execution;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical reads: the first caller for a key runs the
+ * call, and callers arriving while it is in flight share its result instead
+ * of running it again. A finished flight is forgotten at once, so nothing is
+ * cached here.
+ * <p>
+ * Callers put the {@code CatalogVersion} they observed into the key. A request
+ * that arrives after a write committed then starts a new flight instead of
+ * joining one that may have read the catalog before the write.
+ * <p>
+ * Followers wait at most {@code movies.coalescing.max-wait} and then fail with
+ * a {@link TimeoutException}, see {@link #timedOut}. Every call is counted in
+ * {@code movies.coalescing.requests}, tagged with the flight name and whether
+ * it led, followed or timed out.
+ */
+@ApplicationScoped
+public class SingleFlight {
+
+    public static final String REQUESTS_COUNTER = "movies.coalescing.requests";
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "movies.coalescing.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "movies.coalescing.max-wait", defaultValue = "5S")
+    Duration maxWait;
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * @param name low cardinality name of the read, used as a metric tag
+     * @param key  identifies identical reads, including the catalog version
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletionStage<T> execute(String name, String key, Supplier<CompletionStage<T>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        String flightKey = name + ":" + key;
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = flights.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            count(name, "follower");
+            return (CompletionStage<T>) existing.copy()
+                    .orTimeout(maxWait.toMillis(), TimeUnit.MILLISECONDS)
+                    .whenComplete((result, failure) -> {
+                        if (timedOut(failure)) {
+                            count(name, "timeout");
+                        }
+                    });
+        }
+        count(name, "leader");
+        try {
+            call.get().whenComplete((result, failure) -> {
+                flights.remove(flightKey, flight);
+                if (failure != null) {
+                    flight.completeExceptionally(failure);
+                } else {
+                    flight.complete(result);
+                }
+            });
+        } catch (RuntimeException e) {
+            flights.remove(flightKey, flight);
+            flight.completeExceptionally(e);
+        }
+        return (CompletionStage<T>) flight.copy();
+    }
+
+    /**
+     * @return whether {@code failure} is a follower giving up on its flight
+     */
+    public static boolean timedOut(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        return cause instanceof TimeoutException;
+    }
+
+    public Duration maxWait() {
+        return maxWait;
+    }
+
+    private void count(String name, String outcome) {
+        Counter.builder(REQUESTS_COUNTER)
+                .description("Reads that ran a query (leader), shared one in flight (follower) or gave up waiting (timeout)")
+                .tag("flight", name)
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+}
@@ -0,0 +1,61 @@
+package com.movies.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.movies.entities.Movie;
+import com.movies.repository.MovieRepository;
+import io.quarkus.narayana.jta.runtime.TransactionConfiguration;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole catalog as NDJSON, one movie per line, while the rows are
+ * still being fetched. Memory stays bounded by the chunk size: the persistence
+ * context is cleared and the output flushed after every chunk. Writes block
+ * when the client reads slowly, which in turn stops the fetch.
+ */
+@ApplicationScoped
+public class MovieExporter {
+
+    @Inject
+    MovieRepository movieRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "movies.export.chunk-size", defaultValue = "500")
+    int chunkSize;
+
+    @Transactional
+    @TransactionConfiguration(timeoutFromConfigProperty = "movies.export.transaction-timeout")
+    public long export(OutputStream output) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(Movie.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long written = 0;
+        try (Stream<Movie> movies = movieRepository.streamAllById(chunkSize);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Iterator<Movie> iterator = movies.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                if (++written % chunkSize == 0) {
+                    generator.flush();
+                    movieRepository.clearSession();
+                }
+            }
+            generator.flush();
+        }
+        return written;
+    }
+}
@@ -0,0 +1,28 @@
+package com.movies.health;
+
+import com.movies.cache.CatalogPreloader;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.Readiness;
+
+/**
+ * Keeps the instance out of rotation while {@link CatalogPreloader} warms the
+ * caches.
+ */
+@Readiness
+@ApplicationScoped
+public class CatalogPreloadCheck implements HealthCheck {
+
+    @Inject
+    CatalogPreloader catalogPreloader;
+
+    @Override
+    public HealthCheckResponse call() {
+        return HealthCheckResponse.named("catalog-preload")
+                .status(catalogPreloader.isReady())
+                .withData("movies", catalogPreloader.preloaded())
+                .build();
+    }
+}
@@ -0,0 +1,34 @@
+package com.movies.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+
+/**
+ * Publishes p50, p99 and p999 plus histogram buckets for the application's own
+ * meters and for HTTP requests, so Prometheus can aggregate latencies across
+ * instances with {@code histogram_quantile}.
+ */
+@Singleton
+public class MetricsConfiguration {
+
+    @Produces
+    @Singleton
+    MeterFilter percentiles() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getName().startsWith("movies.") || id.getName().equals("http.server.requests")) {
+                    return DistributionStatisticConfig.builder()
+                            .percentiles(0.5, 0.99, 0.999)
+                            .percentilesHistogram(true)
+                            .build()
+                            .merge(config);
+                }
+                return config;
+            }
+        };
+    }
+}
@@ -0,0 +1,89 @@
+package com.movies.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Records how long each named repository query takes and how many rows it
+ * returns, as {@code movies.repository.query} and {@code movies.repository.rows}
+ * tagged with the query name. Together with the Hibernate statement count this
+ * tells an N+1 (many fast queries) from one slow query. Failed queries are
+ * timed too, with the {@code outcome} tag set to {@code failure} instead of
+ * {@code success}, and record no rows.
+ */
+@ApplicationScoped
+public class QueryMetrics {
+
+    public static final String QUERY_TIMER = "movies.repository.query";
+    public static final String ROWS_SUMMARY = "movies.repository.rows";
+    public static final String SUCCESS = "success";
+    public static final String FAILURE = "failure";
+
+    @Inject
+    MeterRegistry registry;
+
+    public <T> T record(String query, Supplier<T> execution, ToIntFunction<T> rows) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = FAILURE;
+        try {
+            T result = execution.get();
+            outcome = SUCCESS;
+            rows(query).record(rows.applyAsInt(result));
+            return result;
+        } finally {
+            sample.stop(timer(query, outcome));
+        }
+    }
+
+    public static int rows(Optional<?> result) {
+        return result.isPresent() ? 1 : 0;
+    }
+
+    /**
+     * Times a stream from creation until it is closed and counts the rows the
+     * caller actually consumed. A stream that fails while it is consumed is
+     * still recorded as a success once closed: only the caller sees the
+     * failure.
+     */
+    public <T> Stream<T> record(String query, Supplier<Stream<T>> execution) {
+        Timer.Sample sample = Timer.start(registry);
+        Stream<T> stream;
+        try {
+            stream = execution.get();
+        } catch (RuntimeException | Error e) {
+            sample.stop(timer(query, FAILURE));
+            throw e;
+        }
+        long[] rows = new long[1];
+        return stream
+                .peek(row -> rows[0]++)
+                .onClose(() -> {
+                    sample.stop(timer(query, SUCCESS));
+                    rows(query).record(rows[0]);
+                });
+    }
+
+    private Timer timer(String query, String outcome) {
+        return Timer.builder(QUERY_TIMER)
+                .description("Execution time of MovieRepository queries")
+                .tag("query", query)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private DistributionSummary rows(String query) {
+        return DistributionSummary.builder(ROWS_SUMMARY)
+                .description("Rows returned by MovieRepository queries")
+                .baseUnit("rows")
+                .tag("query", query)
+                .register(registry);
+    }
+}
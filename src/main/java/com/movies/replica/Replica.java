@@ -0,0 +1,49 @@
+package com.movies.replica;
+
+import io.agroal.api.AgroalDataSource;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A named replica datasource, with the state {@link ReplicaRouter} routes on
+ * and {@link Replicator} keeps up to date.
+ */
+final class Replica {
+
+    static final long NOT_COPIED = -1;
+
+    final String name;
+    final AgroalDataSource dataSource;
+    final AtomicInteger inFlight = new AtomicInteger();
+    /**
+     * Committed changes not applied yet, in sequence order.
+     */
+    final Deque<Replicator.Change> pending = new ConcurrentLinkedDeque<>();
+
+    /**
+     * Whether the replica receives changes. A detached replica is not kept up
+     * to date and never serves reads.
+     */
+    volatile boolean attached;
+    volatile boolean reachable = true;
+    /**
+     * Sequence of the last change applied, {@link #NOT_COPIED} until the
+     * catalog has been copied to the replica.
+     */
+    volatile long appliedSequence = NOT_COPIED;
+
+    Replica(String name, AgroalDataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * @return how long the oldest change not applied yet has been committed, 0 when up to date
+     */
+    long lagNanos() {
+        Replicator.Change oldest = pending.peekFirst();
+        return oldest == null ? 0 : System.nanoTime() - oldest.committedAt();
+    }
+}
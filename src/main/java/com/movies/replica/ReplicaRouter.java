@@ -0,0 +1,330 @@
+package com.movies.replica;
+
+import io.agroal.api.AgroalDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.agroal.DataSource;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import jakarta.persistence.PersistenceException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.jboss.logging.Logger;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Routes read-only repository queries to the named replica datasources in
+ * {@code movies.replicas.names}, so read spikes leave the primary to writes.
+ * Without replicas every query runs on the primary, as before.
+ * <p>
+ * A query runs on a replica only outside a transaction: writes, and reads
+ * made while writing, stay on the primary. With
+ * {@code movies.replicas.read-your-writes} a replica must also have applied
+ * every change committed before the read started, otherwise it must be at
+ * most {@code movies.replicas.max-lag} behind. Among the replicas that
+ * qualify, {@code movies.replicas.balancing} picks the next one in turn
+ * ({@code round-robin}) or the one with the fewest queries in flight
+ * ({@code least-loaded}). When none qualifies, or the query fails on the
+ * replica, it runs on the primary instead.
+ * <p>
+ * Reads made within {@link #upToDate} always need a replica that has applied
+ * every committed change, even without read-your-writes. Caches and response
+ * snapshots load through it, since they keep what they load as the current
+ * state of the catalog.
+ * <p>
+ * Replica queries use their own session, read-only, on the same session
+ * factory. They read the second-level cache but never fill it, so entries
+ * always come from the primary. Every {@code movies.replicas.health-interval}
+ * the replicas are checked and a replica that failed is used again once it
+ * answers a query on the movie table.
+ * <p>
+ * Reads are counted in {@code movies.replicas.reads}, tagged with the
+ * datasource and how the query got there. {@code movies.replicas.lag} tells
+ * how far behind each replica is.
+ */
+@ApplicationScoped
+public class ReplicaRouter {
+
+    private static final Logger LOG = Logger.getLogger(ReplicaRouter.class);
+
+    public static final String READS_COUNTER = "movies.replicas.reads";
+    public static final String LAG_GAUGE = "movies.replicas.lag";
+    public static final String PRIMARY = "primary";
+    private static final String HEALTH_QUERY = "SELECT 1 FROM MOVIE WHERE 1 = 0";
+    private static final ThreadLocal<Boolean> UP_TO_DATE = ThreadLocal.withInitial(() -> false);
+
+    public enum Balancing {
+        ROUND_ROBIN,
+        LEAST_LOADED
+    }
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    @Any
+    Instance<AgroalDataSource> dataSources;
+
+    @Inject
+    Replicator replicator;
+
+    @ConfigProperty(name = "movies.replicas.names")
+    Optional<List<String>> names;
+
+    @ConfigProperty(name = "movies.replicas.active")
+    OptionalInt active;
+
+    @ConfigProperty(name = "movies.replicas.balancing", defaultValue = "round-robin")
+    Balancing balancing;
+
+    @ConfigProperty(name = "movies.replicas.read-your-writes", defaultValue = "true")
+    boolean readYourWrites;
+
+    @ConfigProperty(name = "movies.replicas.max-lag", defaultValue = "5S")
+    Duration maxLag;
+
+    @ConfigProperty(name = "movies.replicas.health-interval", defaultValue = "1S")
+    Duration healthInterval;
+
+    private final AtomicInteger next = new AtomicInteger();
+    List<Replica> replicas;
+    private volatile int activeCount;
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    void init() {
+        List<Replica> configured = new ArrayList<>();
+        for (String name : names.orElse(List.of())) {
+            Replica replica = new Replica(name, dataSources.select(new DataSource.DataSourceLiteral(name)).get());
+            Gauge.builder(LAG_GAUGE, replica, lagging -> lagging.appliedSequence == Replica.NOT_COPIED
+                            ? Double.NaN
+                            : lagging.lagNanos() / 1e9)
+                    .description("Age of the oldest change not applied to a replica yet")
+                    .baseUnit("seconds")
+                    .tag("datasource", name)
+                    .register(registry);
+            configured.add(replica);
+        }
+        replicas = List.copyOf(configured);
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "movies-replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        setActiveReplicas(active.orElse(replicas.size()));
+        long interval = healthInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    List<Replica> replicas() {
+        return replicas;
+    }
+
+    /**
+     * Routes reads to the first {@code count} configured replicas only, 0
+     * keeping every read on the primary. Activated replicas get a fresh copy
+     * of the catalog first, which this call waits for.
+     */
+    public void setActiveReplicas(int count) {
+        if (count < 0 || count > replicas.size()) {
+            throw new IllegalArgumentException("Between 0 and " + replicas.size() + " replicas can be active");
+        }
+        List<CompletableFuture<Void>> copies = new ArrayList<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(i);
+            if (i >= count) {
+                replicator.detach(replica);
+            } else if (!replica.attached) {
+                copies.add(replicator.attach(replica));
+            }
+        }
+        activeCount = count;
+        CompletableFuture.allOf(copies.toArray(CompletableFuture[]::new)).join();
+    }
+
+    public int activeReplicas() {
+        return activeCount;
+    }
+
+    /**
+     * Runs {@code load} so that every read it makes on this thread goes to the
+     * primary or to a replica that has applied every committed change.
+     */
+    public <T> T upToDate(Supplier<T> load) {
+        if (UP_TO_DATE.get()) {
+            return load.get();
+        }
+        UP_TO_DATE.set(true);
+        try {
+            return load.get();
+        } finally {
+            UP_TO_DATE.remove();
+        }
+    }
+
+    /**
+     * Runs {@code query} on a replica when one qualifies, on the primary
+     * session otherwise.
+     *
+     * @param primary the session of the caller, used when the query stays on the primary
+     */
+    public <T> T read(Function<Session, T> query, Supplier<Session> primary) {
+        int count = activeCount;
+        if (count == 0) {
+            return query.apply(primary.get());
+        }
+        if (QuarkusTransaction.isActive()) {
+            count(PRIMARY, "transaction");
+            return query.apply(primary.get());
+        }
+        Replica replica = pick(count);
+        if (replica == null) {
+            count(PRIMARY, "fallback");
+            return query.apply(primary.get());
+        }
+        replica.inFlight.incrementAndGet();
+        try (Connection connection = replica.dataSource.getConnection();
+             Session session = sessionFactory.withOptions().connection(connection).openSession()) {
+            session.setDefaultReadOnly(true);
+            session.setCacheMode(CacheMode.GET);
+            T result = query.apply(session);
+            count(replica.name, "routed");
+            return result;
+        } catch (PersistenceException e) {
+            if (!failedOnDatabase(e)) {
+                throw e;
+            }
+            fail(replica, e);
+        } catch (SQLException e) {
+            fail(replica, e);
+        } finally {
+            replica.inFlight.decrementAndGet();
+        }
+        count(PRIMARY, "fallback");
+        return query.apply(primary.get());
+    }
+
+    private void fail(Replica replica, Exception e) {
+        replica.reachable = false;
+        count(replica.name, "failed");
+        LOG.warnf(e, "Read on replica %s failed, using the primary until it is healthy again", replica.name);
+    }
+
+    /**
+     * Whether {@code e} comes from the replica itself rather than from the
+     * query, like a non-unique result, which would fail on the primary too.
+     */
+    private static boolean failedOnDatabase(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the replica among the first {@code count} to run a read on, {@code null} when none qualifies
+     */
+    Replica pick(int count) {
+        long required = readYourWrites || UP_TO_DATE.get() ? replicator.committed() : Replica.NOT_COPIED;
+        int start = Math.floorMod(next.getAndIncrement(), count);
+        Replica picked = null;
+        for (int i = 0; i < count; i++) {
+            Replica candidate = replicas.get((start + i) % count);
+            if (!qualifies(candidate, required)) {
+                continue;
+            }
+            if (balancing == Balancing.ROUND_ROBIN) {
+                return candidate;
+            }
+            if (picked == null || candidate.inFlight.get() < picked.inFlight.get()) {
+                picked = candidate;
+            }
+        }
+        return picked;
+    }
+
+    private boolean qualifies(Replica replica, long required) {
+        if (!replica.attached || !replica.reachable || replica.appliedSequence == Replica.NOT_COPIED) {
+            return false;
+        }
+        return required != Replica.NOT_COPIED
+                ? replica.appliedSequence >= required
+                : replica.lagNanos() <= maxLag.toNanos();
+    }
+
+    void checkHealth() {
+        for (Replica replica : replicas) {
+            if (!replica.attached) {
+                continue;
+            }
+            boolean reachable;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout((int) Math.max(1, healthInterval.toSeconds()));
+                statement.executeQuery(HEALTH_QUERY).close();
+                reachable = true;
+            } catch (SQLException e) {
+                reachable = false;
+            }
+            if (reachable && !replica.reachable) {
+                LOG.infof("Replica %s is reachable again", replica.name);
+                replica.reachable = true;
+                replicator.resume();
+            } else if (!reachable && replica.reachable) {
+                LOG.warnf("Replica %s is not reachable, reads go to the primary", replica.name);
+                replica.reachable = false;
+            }
+        }
+    }
+
+    private void count(String dataSource, String outcome) {
+        Counter.builder(READS_COUNTER)
+                .description("Repository reads per datasource: routed to a replica, failed on it, or kept on the "
+                        + "primary because of a transaction or as a fallback")
+                .tag("datasource", dataSource)
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+}
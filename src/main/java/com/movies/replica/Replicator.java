@@ -0,0 +1,260 @@
+package com.movies.replica;
+
+import com.movies.events.MovieChange;
+import io.agroal.api.AgroalDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Priority;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Replication stand-in for local H2 replicas, where a real deployment would
+ * rely on the database's own replication.
+ * <p>
+ * Attaching a replica copies the movie table to it with H2's {@code SCRIPT}.
+ * After that every committed {@link MovieChange} is numbered and applied to
+ * each attached replica by re-reading the row from the primary, on a single
+ * "movies-replication" thread. Changes are applied
+ * {@code movies.replicas.replication-delay} after their commit at the
+ * earliest, to reproduce replication lag.
+ */
+@ApplicationScoped
+public class Replicator {
+
+    private static final Logger LOG = Logger.getLogger(Replicator.class);
+    private static final String TABLE = "MOVIE";
+    private static final int APPLY_CHUNK_SIZE = 500;
+
+    /**
+     * A committed change, applied to replicas in sequence order.
+     */
+    record Change(long sequence, Long id, boolean deleted, long committedAt) {
+    }
+
+    @Inject
+    AgroalDataSource primary;
+
+    @Inject
+    ReplicaRouter replicaRouter;
+
+    @ConfigProperty(name = "movies.replicas.replication-delay", defaultValue = "0S")
+    Duration replicationDelay;
+
+    private final Object lock = new Object();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private long committed;
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "movies-replication");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Runs before every other observer, so that a load started after a cache
+     * invalidation or a catalog version change already requires this change.
+     */
+    void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) @Priority(Integer.MIN_VALUE)
+                  MovieChange change) {
+        boolean replicated = false;
+        synchronized (lock) {
+            Change numbered = new Change(++committed, change.getId(),
+                    change.getType() == MovieChange.Type.DELETED, System.nanoTime());
+            for (Replica replica : replicaRouter.replicas()) {
+                if (replica.attached) {
+                    replica.pending.addLast(numbered);
+                    replicated = true;
+                }
+            }
+        }
+        if (replicated) {
+            schedule(replicationDelay.toNanos());
+        }
+    }
+
+    /**
+     * @return the sequence of the last committed change
+     */
+    long committed() {
+        synchronized (lock) {
+            return committed;
+        }
+    }
+
+    /**
+     * Copies the catalog to {@code replica} and keeps it up to date from then
+     * on. The replica serves no read until the copy has completed.
+     */
+    CompletableFuture<Void> attach(Replica replica) {
+        long from;
+        synchronized (lock) {
+            replica.appliedSequence = Replica.NOT_COPIED;
+            replica.pending.clear();
+            replica.attached = true;
+            from = committed;
+        }
+        return CompletableFuture.runAsync(() -> {
+            try {
+                copy(replica);
+                replica.appliedSequence = from;
+                replica.reachable = true;
+                LOG.infof("Copied the catalog to replica %s", replica.name);
+            } catch (SQLException e) {
+                replica.reachable = false;
+                throw new IllegalStateException("Could not copy the catalog to replica " + replica.name, e);
+            }
+            schedule(0);
+        }, scheduler);
+    }
+
+    void detach(Replica replica) {
+        synchronized (lock) {
+            replica.attached = false;
+            replica.appliedSequence = Replica.NOT_COPIED;
+            replica.pending.clear();
+        }
+    }
+
+    private void copy(Replica replica) throws SQLException {
+        try (Connection source = primary.getConnection();
+             Statement script = source.createStatement();
+             ResultSet statements = script.executeQuery("SCRIPT NOPASSWORDS NOSETTINGS DROP TABLE " + TABLE);
+             Connection target = replica.dataSource.getConnection();
+             Statement apply = target.createStatement()) {
+            while (statements.next()) {
+                apply.execute(statements.getString(1));
+            }
+        }
+    }
+
+    /**
+     * Resumes applying changes to a replica that is reachable again.
+     */
+    void resume() {
+        schedule(0);
+    }
+
+    private void schedule(long delayNanos) {
+        if (scheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::drain, delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Applies the changes that are due on every attached replica, then comes
+     * back when the next pending change is due.
+     */
+    private void drain() {
+        scheduled.set(false);
+        long delay = replicationDelay.toNanos();
+        long next = Long.MAX_VALUE;
+        for (Replica replica : replicaRouter.replicas()) {
+            if (replica.attached && replica.reachable && replica.appliedSequence != Replica.NOT_COPIED) {
+                while (apply(replica, delay)) {
+                    // the chunk was full, more changes may be due
+                }
+                Change oldest = replica.pending.peekFirst();
+                if (oldest != null) {
+                    next = Math.min(next, oldest.committedAt() + delay - System.nanoTime());
+                }
+            }
+        }
+        if (next != Long.MAX_VALUE) {
+            schedule(Math.max(next, TimeUnit.MILLISECONDS.toNanos(10)));
+        }
+    }
+
+    /**
+     * Applies up to one chunk of due changes to {@code replica} in one
+     * transaction. On failure the changes are put back and the replica is
+     * skipped until the health check of {@link ReplicaRouter} finds it again.
+     *
+     * @return whether a full chunk was applied
+     */
+    private boolean apply(Replica replica, long delay) {
+        long now = System.nanoTime();
+        List<Change> due = new ArrayList<>();
+        Change change;
+        while (due.size() < APPLY_CHUNK_SIZE
+                && (change = replica.pending.peekFirst()) != null
+                && change.committedAt() + delay <= now) {
+            due.add(replica.pending.pollFirst());
+        }
+        if (due.isEmpty()) {
+            return false;
+        }
+        try (Connection source = primary.getConnection();
+             PreparedStatement select = source.prepareStatement("SELECT * FROM " + TABLE + " WHERE id = ?");
+             Connection target = replica.dataSource.getConnection();
+             PreparedStatement delete = target.prepareStatement("DELETE FROM " + TABLE + " WHERE id = ?")) {
+            target.setAutoCommit(false);
+            for (Change applied : due) {
+                select.setLong(1, applied.id());
+                try (ResultSet row = select.executeQuery()) {
+                    if (applied.deleted() || !row.next()) {
+                        delete.setLong(1, applied.id());
+                        delete.executeUpdate();
+                    } else {
+                        merge(target, row);
+                    }
+                }
+            }
+            target.commit();
+            replica.appliedSequence = due.get(due.size() - 1).sequence();
+        } catch (SQLException e) {
+            for (int i = due.size() - 1; i >= 0; i--) {
+                replica.pending.addFirst(due.get(i));
+            }
+            replica.reachable = false;
+            LOG.warnf(e, "Could not apply %d changes to replica %s", due.size(), replica.name);
+            return false;
+        }
+        return due.size() == APPLY_CHUNK_SIZE;
+    }
+
+    private static void merge(Connection target, ResultSet row) throws SQLException {
+        ResultSetMetaData columns = row.getMetaData();
+        StringBuilder names = new StringBuilder();
+        StringBuilder values = new StringBuilder();
+        for (int i = 1; i <= columns.getColumnCount(); i++) {
+            names.append(i > 1 ? ", " : "").append(columns.getColumnName(i));
+            values.append(i > 1 ? ", ?" : "?");
+        }
+        try (PreparedStatement merge = target.prepareStatement(
+                "MERGE INTO " + TABLE + " (" + names + ") KEY (id) VALUES (" + values + ")")) {
+            for (int i = 1; i <= columns.getColumnCount(); i++) {
+                merge.setObject(i, row.getObject(i));
+            }
+            merge.executeUpdate();
+        }
+    }
+}
@@ -1,15 +1,213 @@
 package com.movies.repository;
 
+import com.movies.dto.MovieSummary;
 import com.movies.entities.Movie;
+import com.movies.metrics.QueryMetrics;
+import com.movies.replica.ReplicaRouter;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.SelectionQuery;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
 
+/**
+ * Read-only queries go through {@link ReplicaRouter}, which runs them on a
+ * replica when one is configured and qualifies. Writes, and every query made
+ * inside a transaction, use the primary.
+ */
 @ApplicationScoped
 public class MovieRepository implements PanacheRepository<Movie> {
 
+    public static final String QUERY_CACHE_REGION = "movie-queries";
+    private static final String SUMMARY = "SELECT new " + MovieSummary.class.getName()
+            + "(m.id, m.title, m.country) FROM Movie m";
+
+    @Inject
+    QueryMetrics queryMetrics;
+
+    @Inject
+    ReplicaRouter replicaRouter;
+
+    private <T> T read(String query, Function<Session, T> execution, ToIntFunction<T> rows){
+        return queryMetrics.record(query, () -> replicaRouter.read(execution, this::session), rows);
+    }
+
+    private Session session(){
+        return getEntityManager().unwrap(Session.class);
+    }
+
+    private static <T> SelectionQuery<T> cacheable(SelectionQuery<T> query){
+        return query.setCacheable(true).setCacheRegion(QUERY_CACHE_REGION);
+    }
+
+    @Override
+    public Optional<Movie> findByIdOptional(Long id){
+        return read("findById", session -> Optional.ofNullable(session.get(Movie.class, id)), QueryMetrics::rows);
+    }
+
+    /**
+     * Loads many movies at once through Hibernate's multi-id loading: ids
+     * already in the persistence context or the second-level cache are served
+     * from there, the rest are read with batched {@code IN} queries.
+     *
+     * @return the movies found, in no particular order
+     */
+    public List<Movie> findByIds(Collection<Long> ids){
+        return read("findByIds",
+                session -> session
+                        .byMultipleIds(Movie.class)
+                        .multiLoad(List.copyOf(ids))
+                        .stream()
+                        .filter(Objects::nonNull)
+                        .toList(),
+                List::size);
+    }
+
+    /**
+     * @return the ids of the {@code limit} most recently created movies
+     */
+    public List<Long> findLatestIds(int limit){
+        return queryMetrics.record("findLatestIds",
+                () -> getEntityManager()
+                        .createQuery("SELECT m.id FROM Movie m ORDER BY m.id DESC", Long.class)
+                        .setMaxResults(limit)
+                        .getResultList(),
+                List::size);
+    }
+
+    /**
+     * Reads only the version column, so a conditional request can be answered
+     * without loading the entity.
+     */
+    public Optional<Long> findVersion(Long id){
+        return read("findVersion",
+                session -> session
+                        .createSelectionQuery("SELECT m.version FROM Movie m WHERE m.id = ?1", Long.class)
+                        .setParameter(1, id)
+                        .uniqueResultOptional(),
+                QueryMetrics::rows);
+    }
+
+    @Override
+    public List<Movie> listAll(){
+        return read("listAll", session -> session.createSelectionQuery("FROM Movie", Movie.class).list(), List::size);
+    }
+
     public List<Movie> findByCountry(String country){
-        return list("SELECT m FROM movie m WHERE m.country = ?1 ORDER BY id DESC", country);
+        return read("findByCountry",
+                session -> cacheable(session
+                        .createSelectionQuery("SELECT m FROM Movie m WHERE m.country = ?1 ORDER BY m.id DESC",
+                                Movie.class))
+                        .setParameter(1, country)
+                        .list(),
+                List::size);
+    }
+
+    public List<MovieSummary> findSummariesByCountry(String country){
+        return read("findSummariesByCountry",
+                session -> cacheable(session
+                        .createSelectionQuery(SUMMARY + " WHERE m.country = ?1 ORDER BY m.id DESC", MovieSummary.class))
+                        .setParameter(1, country)
+                        .list(),
+                List::size);
+    }
+
+    public Optional<Movie> findByTitle(String title){
+        return read("findByTitle",
+                session -> cacheable(session.createSelectionQuery("FROM Movie m WHERE m.title = ?1", Movie.class))
+                        .setParameter(1, title)
+                        .uniqueResultOptional(),
+                QueryMetrics::rows);
+    }
+
+    /**
+     * Keyset page ordered by id: seeks past {@code afterId} on the primary key
+     * instead of using an offset, so every page costs the same.
+     */
+    public List<Movie> findPage(Long afterId, int limit){
+        return read("findPage",
+                session -> page(session.createSelectionQuery(afterId == null
+                        ? "FROM Movie m ORDER BY m.id"
+                        : "FROM Movie m WHERE m.id > ?1 ORDER BY m.id", Movie.class), afterId, limit),
+                List::size);
+    }
+
+    /**
+     * {@link #findPage} projected to {@link MovieSummary}: only the summary
+     * columns are read and rows bypass the persistence context.
+     */
+    public List<MovieSummary> findSummaryPage(Long afterId, int limit){
+        return read("findSummaryPage",
+                session -> page(session.createSelectionQuery(afterId == null
+                        ? SUMMARY + " ORDER BY m.id"
+                        : SUMMARY + " WHERE m.id > ?1 ORDER BY m.id", MovieSummary.class), afterId, limit),
+                List::size);
+    }
+
+    private static <T> List<T> page(SelectionQuery<T> query, Long afterId, int limit){
+        if (afterId != null) {
+            query.setParameter(1, afterId);
+        }
+        return query.setMaxResults(limit).list();
+    }
+
+    public List<MovieSummary> listAllSummaries(){
+        return read("listAllSummaries",
+                session -> session.createSelectionQuery(SUMMARY + " ORDER BY m.id", MovieSummary.class).list(),
+                List::size);
+    }
+
+    public Map<String, Long> countByCountry(){
+        return countBy("country", "countByCountry");
+    }
+
+    public Map<String, Long> countByDirector(){
+        return countBy("director", "countByDirector");
+    }
+
+    private Map<String, Long> countBy(String attribute, String queryName){
+        List<Object[]> rows = read(queryName,
+                session -> session
+                        .createSelectionQuery("SELECT m." + attribute + ", COUNT(m) FROM Movie m WHERE m." + attribute
+                                + " IS NOT NULL GROUP BY m." + attribute, Object[].class)
+                        .list(),
+                List::size);
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((String) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    /**
+     * Forward-only, read-only stream over every movie ordered by id. Must be
+     * consumed inside a transaction and closed by the caller.
+     */
+    public Stream<Movie> streamAllById(int fetchSize){
+        return queryMetrics.record("streamAllById",
+                () -> findAll(Sort.by("id"))
+                        .withHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                        .withHint(HibernateHints.HINT_READ_ONLY, true)
+                        .stream());
+    }
+
+    /**
+     * Detaches every loaded movie so long-running reads do not accumulate
+     * entities in the persistence context.
+     */
+    public void clearSession(){
+        getEntityManager().clear();
     }
 }
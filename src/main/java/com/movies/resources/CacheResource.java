@@ -0,0 +1,46 @@
+package com.movies.resources;
+
+import com.movies.cache.CacheStatistics;
+import com.movies.cache.MovieCache;
+import com.movies.cache.ResponseSnapshots;
+import com.movies.cache.SecondLevelCache;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Path("/admin/cache")
+@Tag(name = "Cache Resource", description = "In-process cache statistics")
+@Produces(MediaType.APPLICATION_JSON)
+public class CacheResource {
+
+    @Inject
+    MovieCache movieCache;
+
+    @Inject
+    ResponseSnapshots responseSnapshots;
+
+    @Inject
+    SecondLevelCache secondLevelCache;
+
+    @GET
+    @Operation(
+            operationId = "getCacheStatistics",
+            summary = "Get cache statistics",
+            description = "Size, hits, misses and evictions of every movie cache, the response snapshots and Hibernate cache regions"
+    )
+    public List<CacheStatistics> getStatistics(){
+        List<CacheStatistics> statistics = new ArrayList<>();
+        statistics.add(movieCache.idStatistics());
+        statistics.add(movieCache.titleStatistics());
+        statistics.add(responseSnapshots.statistics());
+        statistics.addAll(secondLevelCache.regionStatistics());
+        return statistics;
+    }
+}
@@ -0,0 +1,64 @@
+package com.movies.resources;
+
+import com.movies.entities.Movie;
+import jakarta.ws.rs.core.EntityTag;
+
+/**
+ * Strong entity tags for movie responses and the {@code If-Match} /
+ * {@code If-None-Match} comparisons defined by RFC 9110.
+ */
+final class ETags {
+
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+    }
+
+    static EntityTag of(Movie movie) {
+        return of(movie.getId(), movie.getVersion());
+    }
+
+    static EntityTag of(Long id, Long version) {
+        return new EntityTag(id + "." + version);
+    }
+
+    static EntityTag catalog(String version) {
+        return new EntityTag("catalog." + version);
+    }
+
+    /**
+     * {@code If-None-Match} uses the weak comparison, so {@code W/"x"} matches {@code "x"}.
+     */
+    static boolean noneMatch(String header, EntityTag tag) {
+        return header != null && matches(header, tag, true);
+    }
+
+    /**
+     * {@code If-Match} uses the strong comparison. An absent header always
+     * passes.
+     */
+    static boolean ifMatch(String header, EntityTag tag) {
+        return header == null || matches(header, tag, false);
+    }
+
+    private static boolean matches(String header, EntityTag tag, boolean weak) {
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            if (value.equals(ANY)) {
+                return true;
+            }
+            if (value.startsWith(WEAK_PREFIX)) {
+                if (!weak) {
+                    continue;
+                }
+                value = value.substring(WEAK_PREFIX.length());
+            }
+            if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")
+                    && value.substring(1, value.length() - 1).equals(tag.getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
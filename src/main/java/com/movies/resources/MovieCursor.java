@@ -0,0 +1,36 @@
+package com.movies.resources;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for the movie listing. It wraps the last id of a page
+ * so clients never build cursors themselves.
+ */
+final class MovieCursor {
+
+    private static final String PREFIX = "id:";
+
+    private MovieCursor() {
+    }
+
+    static String encode(Long lastId) {
+        byte[] raw = (PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    /**
+     * @return the id to continue after, or {@code null} for the first page
+     * @throws IllegalArgumentException when the cursor was not produced by {@link #encode(Long)}
+     */
+    static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        if (!raw.startsWith(PREFIX)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return Long.valueOf(raw.substring(PREFIX.length()));
+    }
+}
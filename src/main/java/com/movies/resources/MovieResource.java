@@ -1,13 +1,56 @@
 package com.movies.resources;
 
+import com.movies.bulk.MovieImporter;
+import com.movies.bulk.MoviePatcher;
+import com.movies.cache.CatalogVersion;
+import com.movies.cache.MovieCache;
+import com.movies.cache.ResponseSnapshot;
+import com.movies.cache.ResponseSnapshots;
+import com.movies.dto.BatchPatchReport;
+import com.movies.dto.BulkImportReport;
+import com.movies.dto.ChangeEvent;
+import com.movies.dto.GroupCount;
+import com.movies.dto.MovieBatch;
+import com.movies.dto.MoviePage;
+import com.movies.dto.MoviePatch;
+import com.movies.dto.MovieSummary;
+import com.movies.dto.MovieView;
+import com.movies.dto.SearchResults;
+import com.movies.dto.Suggestion;
 import com.movies.entities.Movie;
+import com.movies.events.ChangeFeed;
+import com.movies.events.MovieChange;
+import com.movies.execution.AdmissionControl;
+import com.movies.execution.AdmissionControl.Priority;
+import com.movies.execution.EndpointExecutor;
+import com.movies.execution.SingleFlight;
+import com.movies.export.MovieExporter;
+import com.movies.replica.ReplicaRouter;
 import com.movies.repository.MovieRepository;
+import com.movies.search.MovieSearchIndex;
+import com.movies.search.TitleSuggester;
+import com.movies.stats.MovieCounters;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.common.annotation.NonBlocking;
+import io.smallrye.mutiny.Multi;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.core.UriBuilder;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
@@ -16,65 +59,540 @@ import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
 import javax.swing.text.html.Option;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import static jakarta.ws.rs.core.Response.Status.BAD_REQUEST;
 import static jakarta.ws.rs.core.Response.Status.NOT_FOUND;
+import static jakarta.ws.rs.core.Response.Status.PRECONDITION_FAILED;
+import static jakarta.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
 
 @Path("/movies")
 @Tag(name = "Movie Resource", description="Movie REST APIs")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@Timed(value = "movies.operation", description = "Latency of MovieResource operations")
 public class MovieResource {
 
+    static final String NDJSON = "application/x-ndjson";
+    static final String MERGE_PATCH = "application/merge-patch+json";
+
     @Inject
     MovieRepository movieRepository;
+
+    @Inject
+    EndpointExecutor endpointExecutor;
+
+    @Inject
+    SingleFlight singleFlight;
+
+    @Inject
+    AdmissionControl admissionControl;
+
+    @Inject
+    MovieCache movieCache;
+
+    @Inject
+    ReplicaRouter replicaRouter;
+
+    @Inject
+    CatalogVersion catalogVersion;
+
+    @Inject
+    ResponseSnapshots responseSnapshots;
+
+    @Inject
+    MovieCounters movieCounters;
+
+    @Inject
+    MovieSearchIndex movieSearchIndex;
+
+    @Inject
+    TitleSuggester titleSuggester;
+
+    @Inject
+    MovieExporter movieExporter;
+
+    @Inject
+    MovieImporter movieImporter;
+
+    @Inject
+    MoviePatcher moviePatcher;
+
+    @Inject
+    ChangeFeed changeFeed;
+
+    @Inject
+    Event<MovieChange> movieChanges;
+
+    @ConfigProperty(name = "movies.page.default-size", defaultValue = "20")
+    int defaultPageSize;
+
+    @ConfigProperty(name = "movies.page.max-size", defaultValue = "100")
+    int maxPageSize;
+
+    @ConfigProperty(name = "movies.page.unpaged-enabled", defaultValue = "false")
+    boolean unpagedEnabled;
+
+    @ConfigProperty(name = "movies.batch.max-size", defaultValue = "500")
+    int maxBatchSize;
+
     @GET
     @Operation(
             operationId = "getMovies",
             summary = "Get Movies",
-            description = "Get all movies inside the list"
+            description = "Get one page of movies ordered by id. Follow the next cursor (or the Link header) for the "
+                    + "following page. The whole list is only returned with all=true when the server allows it. "
+                    + "With ids, returns those movies in request order instead of a page"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Operation completed",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON)
+    )
+    @APIResponse(
+            responseCode = "304",
+            description = "The catalog has not changed since the ETag sent in If-None-Match"
+    )
+    @APIResponse(
+            responseCode = "400",
+            description = "Invalid limit, cursor or ids, or unpaged listing disabled",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON)
+    )
+    public CompletionStage<Response> getAll(
+            @Parameter(description = "Page size, capped by the server")
+            @QueryParam("limit") Integer limit,
+            @Parameter(description = "Cursor returned by the previous page")
+            @QueryParam("after") String after,
+            @Parameter(description = "Return every movie in one response")
+            @QueryParam("all") @DefaultValue("false") boolean all,
+            @Parameter(description = "full, or summary for id, title and country only")
+            @QueryParam("view") @DefaultValue("full") MovieView view,
+            @Parameter(description = "Comma separated ids to fetch, e.g. 3,1,2")
+            @QueryParam("ids") List<String> ids,
+            @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+            @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding){
+        if (ids != null && !ids.isEmpty()) {
+            return admitted("batchGetMovies", Priority.LISTING, () -> {
+                EntityTag tag = ETags.catalog(catalogVersion.current());
+                if (ETags.noneMatch(ifNoneMatch, tag)) {
+                    return Response.notModified(tag).build();
+                }
+                return tagged(batchFromQuery(ids), tag);
+            });
+        }
+        return snapshotted("movies", "getMovies", "movies:" + limit + ":" + after + ":" + all + ":" + view,
+                ifNoneMatch, acceptEncoding, () -> listMovies(limit, after, all, view));
+    }
+
+    /**
+     * Answers catalog reads from a current {@link ResponseSnapshot} right on
+     * the I/O thread. On a miss the response is loaded on the endpoint
+     * executor and snapshotted for the next request. Concurrent misses for
+     * the same key and version share one load through {@link SingleFlight},
+     * which is the only one to go through admission control. The load never
+     * reads from a replica that is behind, since its response is tagged with
+     * the current catalog version.
+     */
+    private CompletionStage<Response> snapshotted(String flight, String endpoint, String key, String ifNoneMatch,
+                                                  String acceptEncoding, Supplier<Response> loader){
+        String version = catalogVersion.current();
+        EntityTag tag = ETags.catalog(version);
+        if (ETags.noneMatch(ifNoneMatch, tag)) {
+            return CompletableFuture.completedFuture(Response.notModified(tag).build());
+        }
+        Optional<ResponseSnapshot> snapshot = responseSnapshots.current(key, version);
+        if (snapshot.isPresent()) {
+            return CompletableFuture.completedFuture(snapshot.get().respond(acceptEncoding).tag(tag).build());
+        }
+        return singleFlight.execute(flight, key + "@" + version, () -> admissionControl.admit(endpoint,
+                        Priority.LISTING, () -> endpointExecutor.submit(() -> {
+                            Response response = replicaRouter.upToDate(loader);
+                            return new Loaded(response,
+                                    responseSnapshots.store(key, version, response, loader).orElse(null));
+                        })))
+                .thenApply(loaded -> loaded.snapshot() != null
+                        ? loaded.snapshot().respond(acceptEncoding).tag(tag).build()
+                        : tagged(Response.fromResponse(loaded.response()).build(), tag))
+                .exceptionally(MovieResource::unavailable);
+    }
+
+    /**
+     * A load shared by coalesced requests. The snapshot is absent when the
+     * response was not snapshotted, and each request then copies the response.
+     */
+    private record Loaded(Response response, ResponseSnapshot snapshot) {
+    }
+
+    /**
+     * Runs {@code task} on the endpoint executor if admission control lets it
+     * in, and answers 503 otherwise.
+     */
+    private CompletionStage<Response> admitted(String endpoint, Priority priority, Supplier<Response> task){
+        return admissionControl.admit(endpoint, priority, () -> endpointExecutor.submit(task))
+                .exceptionally(MovieResource::unavailable);
+    }
+
+    /**
+     * Answers 503 to a request refused by admission control or that waited
+     * longer than the single-flight bound for a coalesced read, other
+     * failures propagate.
+     */
+    private static Response unavailable(Throwable failure){
+        if (AdmissionControl.rejected(failure) || SingleFlight.timedOut(failure)) {
+            return Response.status(SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, 1).build();
+        }
+        throw failure instanceof CompletionException completion ? completion : new CompletionException(failure);
+    }
+
+    /**
+     * Accepts both {@code ids=1,2} and {@code ids=1&ids=2}.
+     */
+    private Response batchFromQuery(List<String> values){
+        List<Long> ids = new ArrayList<>();
+        try {
+            for (String value : values) {
+                for (String id : value.split(",")) {
+                    ids.add(Long.valueOf(id.trim()));
+                }
+            }
+        } catch (NumberFormatException e) {
+            return Response.status(BAD_REQUEST).build();
+        }
+        return batch(ids);
+    }
+
+    /**
+     * Serves cached movies from the cache and loads the others with one
+     * multi-id lookup. Every requested id gets an entry, in request order.
+     */
+    private Response batch(List<Long> ids){
+        if (ids == null || ids.isEmpty() || ids.size() > maxBatchSize || ids.stream().anyMatch(Objects::isNull)) {
+            return Response.status(BAD_REQUEST).build();
+        }
+        Map<Long, Movie> found = movieCache.findByIds(new LinkedHashSet<>(ids));
+        MovieBatch batch = new MovieBatch();
+        for (Long id : ids) {
+            Movie movie = found.get(id);
+            if (movie != null) {
+                batch.found(movie);
+            } else {
+                batch.missing(id);
+            }
+        }
+        return Response.ok(batch).build();
+    }
+
+    /**
+     * Adds the ETag to successful responses only, errors are never cached.
+     */
+    private static Response tagged(Response response, EntityTag tag){
+        if (response.getStatus() != Response.Status.OK.getStatusCode()) {
+            return response;
+        }
+        return Response.fromResponse(response).tag(tag).build();
+    }
+
+    private Response listMovies(Integer limit, String after, boolean all, MovieView view){
+        if (all) {
+            if (!unpagedEnabled) {
+                return Response.status(BAD_REQUEST).build();
+            }
+            if (view == MovieView.SUMMARY) {
+                return Response.ok(movieRepository.listAllSummaries()).build();
+            }
+            List <Movie> movies = movieRepository.listAll();
+            return Response.ok(movies).build();
+        }
+
+        int pageSize = limit == null ? defaultPageSize : Math.min(limit, maxPageSize);
+        Long afterId;
+        try {
+            afterId = MovieCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            return Response.status(BAD_REQUEST).build();
+        }
+        if (pageSize < 1) {
+            return Response.status(BAD_REQUEST).build();
+        }
+
+        if (view == MovieView.SUMMARY) {
+            return page(movieRepository.findSummaryPage(afterId, pageSize + 1), pageSize, view, MovieSummary::getId);
+        }
+        return page(movieRepository.findPage(afterId, pageSize + 1), pageSize, view, Movie::getId);
+    }
+
+    /**
+     * Builds the page from {@code pageSize + 1} rows, the extra row telling
+     * whether a next page exists.
+     */
+    private static <T> Response page(List<T> rows, int pageSize, MovieView view, Function<T, Long> id){
+        if (rows.size() <= pageSize) {
+            return Response.ok(new MoviePage<>(rows, null)).build();
+        }
+        List<T> items = rows.subList(0, pageSize);
+        String next = MovieCursor.encode(id.apply(items.get(pageSize - 1)));
+        UriBuilder nextLink = UriBuilder.fromPath("/movies")
+                .queryParam("limit", pageSize)
+                .queryParam("after", next);
+        if (view != MovieView.FULL) {
+            nextLink.queryParam("view", view.name().toLowerCase(Locale.ROOT));
+        }
+        return Response.ok(new MoviePage<>(items, next))
+                .link(nextLink.build(), "next")
+                .build();
+    }
+
+    @GET
+    @Path("search")
+    @Operation(
+            operationId = "searchMovies",
+            summary = "Search Movies",
+            description = "Full-text search over title, description and director, best matches first"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Operation completed",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = SearchResults.class))
+    )
+    @APIResponse(
+            responseCode = "400",
+            description = "Invalid limit or offset",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON)
+    )
+    public CompletionStage<Response> searchMovies(
+            @Parameter(description = "Search terms")
+            @QueryParam("q") String query,
+            @Parameter(description = "Page size, capped by the server")
+            @QueryParam("limit") Integer limit,
+            @Parameter(description = "Number of results to skip")
+            @QueryParam("offset") @DefaultValue("0") int offset){
+        return endpointExecutor.submit(() -> {
+            int pageSize = limit == null ? defaultPageSize : Math.min(limit, maxPageSize);
+            if (pageSize < 1 || offset < 0) {
+                return Response.status(BAD_REQUEST).build();
+            }
+            return Response.ok(movieSearchIndex.search(query, offset, pageSize)).build();
+        });
+    }
+
+    @GET
+    @Path("suggest")
+    @NonBlocking
+    @Operation(
+            operationId = "suggestMovies",
+            summary = "Suggest Movie titles",
+            description = "Autocomplete: the most viewed movies whose title starts with the prefix, ignoring case, "
+                    + "accents and punctuation. With fuzzy=true, titles one typo away fill the remaining places"
     )
     @APIResponse(
             responseCode = "200",
             description = "Operation completed",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(type = SchemaType.ARRAY, implementation = Suggestion.class))
+    )
+    @APIResponse(
+            responseCode = "400",
+            description = "Missing prefix or invalid limit",
             content = @Content(mediaType = MediaType.APPLICATION_JSON)
     )
-    public Response getAll(){
-        List <Movie> movies = movieRepository.listAll();
-        return Response.ok(movies).build();
+    public Response suggestMovies(
+            @Parameter(description = "What has been typed so far")
+            @QueryParam("prefix") String prefix,
+            @Parameter(description = "Number of suggestions, capped by the server")
+            @QueryParam("limit") Integer limit,
+            @Parameter(description = "Also suggest titles one typo away from the prefix")
+            @QueryParam("fuzzy") @DefaultValue("false") boolean fuzzy){
+        int size = limit == null ? titleSuggester.maxLimit() : Math.min(limit, titleSuggester.maxLimit());
+        if (prefix == null || prefix.isBlank() || size < 1) {
+            return Response.status(BAD_REQUEST).build();
+        }
+        return Response.ok(titleSuggester.suggest(prefix, size, fuzzy)).build();
+    }
+
+    @GET
+    @Path("export")
+    @Produces(NDJSON)
+    @Operation(
+            operationId = "exportMovies",
+            summary = "Export Movies",
+            description = "Stream every movie as newline-delimited JSON, ordered by id"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Operation completed",
+            content = @Content(mediaType = NDJSON)
+    )
+    @Blocking
+    public Response exportMovies(){
+        Optional<AdmissionControl.Permit> permit = admissionControl.tryAcquire("exportMovies", Priority.LISTING);
+        if (permit.isEmpty()) {
+            return Response.status(SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, 1).build();
+        }
+        StreamingOutput body = output -> {
+            try {
+                movieExporter.export(output);
+            } finally {
+                permit.get().release();
+            }
+        };
+        return Response.ok(body, NDJSON).build();
+    }
+
+    /**
+     * Each event carries its sequence as the SSE id, so a reconnecting client
+     * resumes through Last-Event-ID. A "reset" event means changes were missed
+     * and the client should reload before applying the events that follow.
+     */
+    @GET
+    @Path("changes")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @Operation(
+            operationId = "streamChanges",
+            summary = "Stream Movie changes",
+            description = "Server-sent events for every committed create, update and delete"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Event stream opened",
+            content = @Content(mediaType = MediaType.SERVER_SENT_EVENTS,
+                    schema = @Schema(implementation = ChangeEvent.class))
+    )
+    public Multi<OutboundSseEvent> streamChanges(
+            @Parameter(
+                    description = "Sequence of the last event received"
+            )
+            @HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) String lastEventId,
+            @Context Sse sse){
+        return changeFeed.subscribe(lastSequence(lastEventId))
+                .map(item -> item.reset()
+                        ? sse.newEventBuilder().name("reset").data(String.class, "reset").build()
+                        : sse.newEventBuilder()
+                                .id(Long.toString(item.event().getSequence()))
+                                .name(item.event().getType().name().toLowerCase(Locale.ROOT))
+                                .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                                .data(ChangeEvent.class, item.event())
+                                .build());
+    }
+
+    /**
+     * An id this server cannot have issued resumes from before the first
+     * event, so the client gets a reset instead of silently missing changes.
+     */
+    private static Long lastSequence(String lastEventId){
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
     }
 
+    /**
+     * A matching If-None-Match is answered from the cached copy or the version
+     * column alone, without loading or serializing the movie.
+     */
     @GET
     @Path("{id}")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getById(@PathParam("id") Long id){
-        return movieRepository
-                .findByIdOptional(id)
-                .map(movie -> Response.ok(movie).build())
-                .orElse(Response.status(NOT_FOUND).build());
+    public CompletionStage<Response> getById(
+            @PathParam("id") Long id,
+            @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch){
+        return admitted("getMovie", Priority.POINT, () -> {
+            if (ifNoneMatch != null) {
+                Optional<EntityTag> current = movieCache.peekById(id)
+                        .map(Movie::getVersion)
+                        .or(() -> movieRepository.findVersion(id))
+                        .map(version -> ETags.of(id, version));
+                if (current.isPresent() && ETags.noneMatch(ifNoneMatch, current.get())) {
+                    return Response.notModified(current.get()).build();
+                }
+            }
+            return movieCache
+                    .findById(id)
+                    .map(movie -> {
+                        titleSuggester.recordView(id);
+                        return Response.ok(movie).tag(ETags.of(movie)).build();
+                    })
+                    .orElse(Response.status(NOT_FOUND).build());
+        });
     }
 
     @GET
     @Path("country/{country}")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getByCountry(@PathParam("country") String country){
-        List <Movie> result = movieRepository.findByCountry(country);
-        return Response.ok(result).build();
+    public CompletionStage<Response> getByCountry(
+            @PathParam("country") String country,
+            @Parameter(description = "full, or summary for id, title and country only")
+            @QueryParam("view") @DefaultValue("full") MovieView view,
+            @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+            @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding){
+        return snapshotted("country", "getMoviesByCountry", "country:" + view + ":" + country, ifNoneMatch, acceptEncoding, () -> {
+            if (view == MovieView.SUMMARY) {
+                return Response.ok(movieRepository.findSummariesByCountry(country)).build();
+            }
+            List <Movie> result = movieRepository.findByCountry(country);
+            return Response.ok(result).build();
+        });
+    }
+
+    @GET
+    @Path("country/{country}/size")
+    @Produces(MediaType.TEXT_PLAIN)
+    @Operation(
+            operationId = "countMoviesByCountry",
+            summary = "Count Movies by country",
+            description = "Number of movies from a country"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Operation completed",
+            content = @Content(mediaType = MediaType.TEXT_PLAIN)
+    )
+    public CompletionStage<Long> countMoviesByCountry(@PathParam("country") String country){
+        return endpointExecutor.submit(() -> movieCounters.countByCountry(country));
     }
 
     @GET
     @Path("title/{title}")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getByTitle(@PathParam("title") String title){
-        return movieRepository
-                .find("title", title)
-                .singleResultOptional()
-                .map(movie -> Response.ok(movie).build())
-                .orElse(Response.status(NOT_FOUND).build());
+    public CompletionStage<Response> getByTitle(
+            @PathParam("title") String title,
+            @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch){
+        String version = catalogVersion.current();
+        return singleFlight.execute("title", title + "@" + version,
+                        () -> admissionControl.admit("getMovieByTitle", Priority.POINT,
+                                () -> endpointExecutor.submit(() -> movieCache.findByTitle(title))))
+                .thenApply(found -> found
+                        .map(movie -> {
+                            EntityTag tag = ETags.of(movie);
+                            if (ETags.noneMatch(ifNoneMatch, tag)) {
+                                return Response.notModified(tag).build();
+                            }
+                            titleSuggester.recordView(movie.getId());
+                            return Response.ok(movie).tag(tag).build();
+                        })
+                        .orElse(Response.status(NOT_FOUND).build()))
+                .exceptionally(MovieResource::unavailable);
     }
 
     @GET
@@ -90,13 +608,66 @@ public class MovieResource {
             description = "Operation completed",
             content = @Content(mediaType = MediaType.TEXT_PLAIN)
     )
-    public Integer countMovies(){
-        List<Movie> movies = movieRepository.listAll();
-        return movies.size();
+    public CompletionStage<Long> countMovies(){
+        return endpointExecutor.submit(movieCounters::count);
+    }
+
+    @GET
+    @Path("stats/by-country")
+    @Operation(
+            operationId = "statsByCountry",
+            summary = "Movies per country",
+            description = "Number of movies per country, largest first. Served from an in-memory rollup"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Operation completed",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(type = SchemaType.ARRAY, implementation = GroupCount.class))
+    )
+    @APIResponse(
+            responseCode = "400",
+            description = "Invalid top",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON)
+    )
+    public CompletionStage<Response> statsByCountry(
+            @Parameter(description = "Only return the largest groups")
+            @QueryParam("top") Integer top){
+        return endpointExecutor.submit(() -> stats(top, movieCounters::statsByCountry));
+    }
+
+    @GET
+    @Path("stats/by-director")
+    @Operation(
+            operationId = "statsByDirector",
+            summary = "Movies per director",
+            description = "Number of movies per director, largest first. Served from an in-memory rollup"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Operation completed",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(type = SchemaType.ARRAY, implementation = GroupCount.class))
+    )
+    @APIResponse(
+            responseCode = "400",
+            description = "Invalid top",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON)
+    )
+    public CompletionStage<Response> statsByDirector(
+            @Parameter(description = "Only return the largest groups")
+            @QueryParam("top") Integer top){
+        return endpointExecutor.submit(() -> stats(top, movieCounters::statsByDirector));
+    }
+
+    private static Response stats(Integer top, Function<Integer, List<GroupCount>> rollup){
+        if (top != null && top < 1) {
+            return Response.status(BAD_REQUEST).build();
+        }
+        return Response.ok(rollup.apply(top)).build();
     }
 
     @POST
-    @Transactional
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
     @Operation(
@@ -109,18 +680,86 @@ public class MovieResource {
             description = "Movie created",
             content = @Content(mediaType = MediaType.APPLICATION_JSON)
     )
-    public Response createMovie(
+    public CompletionStage<Response> createMovie(
             @RequestBody(
                     description = "Movie to create",
                     required = true,
                     content = @Content(schema = @Schema(implementation = Movie.class))
             )
             Movie movie){
-        movieRepository.persist(movie);
-        if (movieRepository.isPersistent(movie)){
-            return Response.created(URI.create("/movies" + movie.getId())).build();
+        return admitted("createMovie", Priority.WRITE, () -> QuarkusTransaction.requiringNew().call(() -> {
+            movieRepository.persist(movie);
+            if (movieRepository.isPersistent(movie)){
+                movieChanges.fire(MovieChange.created(movie));
+                return Response.created(URI.create("/movies" + movie.getId())).build();
+            }
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }));
+    }
+
+    @POST
+    @Path("bulk")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes({MediaType.APPLICATION_JSON, NDJSON})
+    @Operation(
+            operationId = "importMovies",
+            summary = "Import Movies",
+            description = "Create many movies from a JSON array or newline-delimited JSON, persisted in batches"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Import finished, see the report for the result of each movie",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = BulkImportReport.class))
+    )
+    @Blocking
+    public Response importMovies(
+            @RequestBody(
+                    description = "Movies to create",
+                    required = true,
+                    content = @Content(schema = @Schema(type = SchemaType.ARRAY, implementation = Movie.class))
+            )
+            InputStream movies) throws IOException {
+        Optional<AdmissionControl.Permit> permit = admissionControl.tryAcquire("importMovies", Priority.WRITE);
+        if (permit.isEmpty()) {
+            return Response.status(SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, 1).build();
+        }
+        try {
+            return Response.ok(movieImporter.importMovies(movies)).build();
+        } finally {
+            permit.get().release();
         }
-        return Response.status(Response.Status.BAD_REQUEST).build();
+    }
+
+    @POST
+    @Path("batch-get")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Operation(
+            operationId = "batchGetMovies",
+            summary = "Get Movies by id",
+            description = "Fetch many movies in one request. Every requested id gets an entry in request order, "
+                    + "marked as not found when no movie has that id"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Operation completed",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = MovieBatch.class))
+    )
+    @APIResponse(
+            responseCode = "400",
+            description = "No ids, or more ids than the server allows in one batch",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON)
+    )
+    public CompletionStage<Response> batchGetMovies(
+            @RequestBody(
+                    description = "Ids of the movies to fetch",
+                    required = true,
+                    content = @Content(schema = @Schema(type = SchemaType.ARRAY, implementation = Long.class))
+            )
+            List<Long> ids){
+        return admitted("batchGetMovies", Priority.LISTING, () -> batch(ids));
     }
 
     @PUT
@@ -137,25 +776,161 @@ public class MovieResource {
             description = "Movie updated",
             content = @Content(mediaType = MediaType.APPLICATION_JSON)
     )
-    public Response updateMovieById(
+    @APIResponse(
+            responseCode = "412",
+            description = "The movie changed since the ETag sent in If-Match"
+    )
+    public CompletionStage<Response> updateMovieById(
             @Parameter(
                     description = "Movie id",
                     required = true
             )
             @PathParam("id") Long id,
+            @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
             Movie movie){
-        return movieRepository
+        return admitted("updateMovies", Priority.WRITE, () -> conditionally(() -> movieRepository
                 .findByIdOptional(id)
                 .map(
                       m -> {
+                          EntityTag current = ETags.of(m);
+                          if (!ETags.ifMatch(ifMatch, current)) {
+                              return Response.status(PRECONDITION_FAILED).tag(current).build();
+                          }
+                          Movie before = MovieChange.copy(m);
                           m.setTitle(movie.getTitle());
-                          return Response.ok(m).build();
+                          movieRepository.flush();
+                          movieChanges.fire(MovieChange.updated(before, m));
+                          return Response.ok(m).tag(ETags.of(m)).build();
                       })
-                .orElse(Response.status(NOT_FOUND).build());
+                .orElse(Response.status(NOT_FOUND).build())));
+    }
+
+    @PATCH
+    @Path("{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes({MediaType.APPLICATION_JSON, MERGE_PATCH})
+    @Operation(
+            operationId = "patchMovie",
+            summary = "Partially update a Movie",
+            description = "Change only the fields present in the request, a field sent as null is cleared"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Movie updated",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = Movie.class))
+    )
+    @APIResponse(
+            responseCode = "400",
+            description = "No patch, or a blank title"
+    )
+    @APIResponse(
+            responseCode = "412",
+            description = "The movie changed since the ETag sent in If-Match"
+    )
+    public CompletionStage<Response> patchMovieById(
+            @Parameter(
+                    description = "Movie id",
+                    required = true
+            )
+            @PathParam("id") Long id,
+            @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+            @RequestBody(
+                    description = "Fields to change",
+                    required = true,
+                    content = @Content(schema = @Schema(implementation = MoviePatch.class))
+            )
+            MoviePatch patch){
+        if (patch == null || patch.validate() != null) {
+            return CompletableFuture.completedFuture(Response.status(BAD_REQUEST).build());
+        }
+        return admitted("patchMovie", Priority.WRITE, () -> conditionally(() -> movieRepository
+                .findByIdOptional(id)
+                .map(movie -> {
+                    EntityTag current = ETags.of(movie);
+                    if (!ETags.ifMatch(ifMatch, current)) {
+                        return Response.status(PRECONDITION_FAILED).tag(current).build();
+                    }
+                    Movie before = MovieChange.copy(movie);
+                    patch.applyTo(movie);
+                    movieRepository.flush();
+                    movieChanges.fire(MovieChange.updated(before, movie));
+                    return Response.ok(movie).tag(ETags.of(movie)).build();
+                })
+                .orElse(Response.status(NOT_FOUND).build())));
+    }
+
+    @PATCH
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes({MediaType.APPLICATION_JSON, MERGE_PATCH})
+    @Operation(
+            operationId = "patchMovies",
+            summary = "Partially update many Movies",
+            description = "Apply one patch per movie in a single transaction, written as batched updates. A patch "
+                    + "with a version is skipped as a conflict when the movie is no longer at that version, and a "
+                    + "patch that changes no field is reported as unchanged"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Batch applied, see the report for the result of each patch",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = BatchPatchReport.class))
+    )
+    @APIResponse(
+            responseCode = "400",
+            description = "No patches, more patches than the server allows in one batch, a patch without id, "
+                    + "the same id twice, or a blank title"
+    )
+    @APIResponse(
+            responseCode = "412",
+            description = "A movie changed while the batch was written, nothing was applied"
+    )
+    public CompletionStage<Response> patchMovies(
+            @RequestBody(
+                    description = "Patches, each with the id of the movie to change",
+                    required = true,
+                    content = @Content(schema = @Schema(type = SchemaType.ARRAY, implementation = MoviePatch.class))
+            )
+            List<MoviePatch> patches){
+        if (!validBatch(patches)) {
+            return CompletableFuture.completedFuture(Response.status(BAD_REQUEST).build());
+        }
+        return admitted("patchMovies", Priority.WRITE,
+                () -> conditionally(() -> Response.ok(moviePatcher.patch(patches)).build()));
+    }
+
+    private boolean validBatch(List<MoviePatch> patches){
+        if (patches == null || patches.isEmpty() || patches.size() > maxBatchSize) {
+            return false;
+        }
+        Set<Long> ids = new HashSet<>();
+        for (MoviePatch patch : patches) {
+            if (patch == null || patch.getId() == null || !ids.add(patch.getId()) || patch.validate() != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Runs a write in its own transaction. A concurrent update caught by the
+     * version column answers 412, like a stale If-Match, whether it shows at
+     * the flush or only when the transaction commits.
+     */
+    private Response conditionally(Supplier<Response> write){
+        try {
+            return QuarkusTransaction.requiringNew().call(write::get);
+        } catch (RuntimeException e) {
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof OptimisticLockException) {
+                    return Response.status(PRECONDITION_FAILED).build();
+                }
+            }
+            throw e;
+        }
     }
 
     @DELETE
-    @Transactional
     @Path("{id}")
     @Consumes(MediaType.TEXT_PLAIN)
     @Operation(
@@ -173,12 +948,26 @@ public class MovieResource {
             description = "Movie not valid",
             content = @Content(mediaType = MediaType.APPLICATION_JSON)
     )
-    public Response deleteById(
-            @PathParam("id") Long id){
-        boolean deleted = movieRepository.deleteById(id);
-
-        return deleted ? Response.noContent().build() :
-                Response.status(NOT_FOUND).build();
+    @APIResponse(
+            responseCode = "412",
+            description = "The movie changed since the ETag sent in If-Match"
+    )
+    public CompletionStage<Response> deleteById(
+            @PathParam("id") Long id,
+            @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch){
+        return admitted("deleteMovies", Priority.WRITE, () -> conditionally(() -> movieRepository
+                .findByIdOptional(id)
+                .map(movie -> {
+                    EntityTag current = ETags.of(movie);
+                    if (!ETags.ifMatch(ifMatch, current)) {
+                        return Response.status(PRECONDITION_FAILED).tag(current).build();
+                    }
+                    movieRepository.delete(movie);
+                    movieRepository.flush();
+                    movieChanges.fire(MovieChange.deleted(movie));
+                    return Response.noContent().build();
+                })
+                .orElse(Response.status(NOT_FOUND).build())));
     }
 
 }
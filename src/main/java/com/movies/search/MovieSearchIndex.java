@@ -0,0 +1,183 @@
+package com.movies.search;
+
+import com.movies.dto.SearchResults;
+import com.movies.entities.Movie;
+import com.movies.events.MovieChange;
+import com.movies.repository.MovieRepository;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over movie title, description and director, ranked
+ * with BM25. Title terms count twice. The index is built from the database at
+ * startup and then follows committed {@link MovieChange} events, so searches
+ * never touch the database.
+ */
+@ApplicationScoped
+public class MovieSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_WEIGHT = 2;
+    private static final int LOAD_CHUNK_SIZE = 500;
+
+    @Inject
+    MovieRepository movieRepository;
+
+    @ConfigProperty(name = "movies.search.enabled", defaultValue = "true")
+    boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private long totalLength;
+
+    @Transactional
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try (Stream<Movie> movies = movieRepository.streamAllById(LOAD_CHUNK_SIZE)) {
+            Iterator<Movie> iterator = movies.iterator();
+            int loaded = 0;
+            while (iterator.hasNext()) {
+                index(MovieChange.copy(iterator.next()));
+                if (++loaded % LOAD_CHUNK_SIZE == 0) {
+                    movieRepository.clearSession();
+                }
+            }
+        }
+    }
+
+    void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) MovieChange change) {
+        if (!enabled) {
+            return;
+        }
+        switch (change.getType()) {
+            case CREATED, UPDATED -> index(change.getAfter());
+            case DELETED -> remove(change.getId());
+        }
+    }
+
+    public void index(Movie movie) {
+        Map<String, Integer> terms = new HashMap<>();
+        for (String token : Tokenizer.tokenize(movie.getTitle())) {
+            terms.merge(token, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String token : Tokenizer.tokenize(movie.getDescription())) {
+            terms.merge(token, 1, Integer::sum);
+        }
+        for (String token : Tokenizer.tokenize(movie.getDirector())) {
+            terms.merge(token, 1, Integer::sum);
+        }
+        int length = terms.values().stream().mapToInt(Integer::intValue).sum();
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(movie.getId());
+            documents.put(movie.getId(), new Document(movie, terms, length));
+            totalLength += length;
+            terms.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, key -> new HashMap<>()).put(movie.getId(), frequency));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        totalLength -= document.length();
+        for (String term : document.terms().keySet()) {
+            Map<Long, Integer> posting = postings.get(term);
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    public SearchResults search(String query, int offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(Tokenizer.tokenize(query));
+        if (terms.isEmpty()) {
+            return new SearchResults(0, Collections.emptyList());
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            double averageLength = documentCount == 0 ? 0 : (double) totalLength / documentCount;
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                posting.forEach((id, frequency) -> {
+                    double norm = K1 * (1 - B + B * documents.get(id).length() / averageLength);
+                    scores.merge(id, idf * frequency * (K1 + 1) / (frequency + norm), Double::sum);
+                });
+            }
+
+            PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(MovieSearchIndex::compare);
+            int wanted = offset + limit;
+            for (Map.Entry<Long, Double> score : scores.entrySet()) {
+                top.offer(score);
+                if (top.size() > wanted) {
+                    top.poll();
+                }
+            }
+            List<Movie> ranked = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                ranked.add(documents.get(top.poll().getKey()).movie());
+            }
+            Collections.reverse(ranked);
+            List<Movie> page = offset >= ranked.size() ? Collections.emptyList() : ranked.subList(offset, ranked.size());
+            return new SearchResults(scores.size(), page);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Orders by score, then by id descending so that equal scores rank the
+     * lowest id first once the queue is reversed.
+     */
+    private static int compare(Map.Entry<Long, Double> left, Map.Entry<Long, Double> right) {
+        int byScore = Double.compare(left.getValue(), right.getValue());
+        return byScore != 0 ? byScore : Long.compare(right.getKey(), left.getKey());
+    }
+
+    private record Document(Movie movie, Map<String, Integer> terms, int length) {
+    }
+}
@@ -0,0 +1,242 @@
+package com.movies.search;
+
+import com.movies.dto.Suggestion;
+import com.movies.entities.Movie;
+import com.movies.events.MovieChange;
+import com.movies.repository.MovieRepository;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Title autocomplete over a {@link TitleTrie} of normalized titles, ranked by
+ * popularity. Like {@link MovieSearchIndex} it is built from the database at
+ * startup and then follows committed {@link MovieChange} events.
+ * <p>
+ * Popularity is the number of times a movie was read since startup. Reads are
+ * counted in a concurrent map and folded into the trie every
+ * {@code movies.suggest.popularity-interval}, so the read path never takes the
+ * write lock.
+ */
+@ApplicationScoped
+public class TitleSuggester {
+
+    /**
+     * One edit on a shorter prefix matches a large part of the catalog.
+     */
+    static final int FUZZY_MIN_LENGTH = 3;
+    private static final int LOAD_CHUNK_SIZE = 500;
+    private static final int VIEWS_PER_LOCK = 1000;
+
+    @Inject
+    MovieRepository movieRepository;
+
+    @ConfigProperty(name = "movies.suggest.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "movies.suggest.max-limit", defaultValue = "10")
+    int maxLimit;
+
+    @ConfigProperty(name = "movies.suggest.popularity-interval", defaultValue = "5S")
+    Duration popularityInterval;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, TitleTrie.Entry> entries = new HashMap<>();
+    private final ConcurrentMap<Long, Long> views = new ConcurrentHashMap<>();
+    private TitleTrie trie;
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    void init() {
+        trie = new TitleTrie(maxLimit);
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "movies-suggest");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Transactional
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try (Stream<Movie> movies = movieRepository.streamAllById(LOAD_CHUNK_SIZE)) {
+            Iterator<Movie> iterator = movies.iterator();
+            int loaded = 0;
+            while (iterator.hasNext()) {
+                index(iterator.next());
+                if (++loaded % LOAD_CHUNK_SIZE == 0) {
+                    movieRepository.clearSession();
+                }
+            }
+        }
+        long interval = popularityInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::applyViews, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) MovieChange change) {
+        if (!enabled) {
+            return;
+        }
+        switch (change.getType()) {
+            case CREATED, UPDATED -> index(change.getAfter());
+            case DELETED -> remove(change.getId());
+        }
+    }
+
+    /**
+     * Adds or re-keys the title of {@code movie}, keeping its popularity.
+     */
+    public void index(Movie movie) {
+        String key = key(movie.getTitle());
+        lock.writeLock().lock();
+        try {
+            TitleTrie.Entry previous = entries.get(movie.getId());
+            if (previous != null && previous.title.equals(movie.getTitle())) {
+                return;
+            }
+            long weight = 0;
+            if (previous != null) {
+                trie.remove(previous);
+                entries.remove(movie.getId());
+                weight = previous.weight;
+            }
+            if (!key.isEmpty()) {
+                TitleTrie.Entry entry = new TitleTrie.Entry(movie.getId(), movie.getTitle(), key, weight);
+                entries.put(movie.getId(), entry);
+                trie.add(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            TitleTrie.Entry entry = entries.remove(id);
+            if (entry != null) {
+                trie.remove(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts a read of the movie towards its popularity.
+     */
+    public void recordView(Long id) {
+        if (enabled) {
+            views.merge(id, 1L, Long::sum);
+        }
+    }
+
+    /**
+     * Folds the reads counted since the last call into the trie, a bounded
+     * number per write lock so suggestions are not held up.
+     */
+    void applyViews() {
+        Iterator<Long> ids = views.keySet().iterator();
+        while (ids.hasNext()) {
+            lock.writeLock().lock();
+            try {
+                for (int i = 0; i < VIEWS_PER_LOCK && ids.hasNext(); i++) {
+                    Long id = ids.next();
+                    Long count = views.remove(id);
+                    TitleTrie.Entry entry = entries.get(id);
+                    if (count != null && entry != null) {
+                        trie.raise(entry, count);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public int maxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * The most popular titles starting with {@code prefix}, ignoring case,
+     * diacritics and punctuation. With {@code fuzzy}, titles one typo away
+     * fill the remaining places after the exact matches.
+     *
+     * @param limit at most {@link #maxLimit()}
+     */
+    public List<Suggestion> suggest(String prefix, int limit, boolean fuzzy) {
+        String key = prefixKey(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        List<Suggestion> suggestions = new ArrayList<>(limit);
+        Set<Long> ids = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            for (TitleTrie.Entry entry : trie.top(key, limit)) {
+                suggestions.add(new Suggestion(entry.id, entry.title, false));
+                ids.add(entry.id);
+            }
+            if (fuzzy && suggestions.size() < limit && key.length() >= FUZZY_MIN_LENGTH) {
+                for (TitleTrie.Entry entry : trie.fuzzyTop(key, limit)) {
+                    if (suggestions.size() == limit) {
+                        break;
+                    }
+                    if (ids.add(entry.id)) {
+                        suggestions.add(new Suggestion(entry.id, entry.title, true));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return suggestions;
+    }
+
+    static String key(String title) {
+        return String.join(" ", Tokenizer.tokenize(title));
+    }
+
+    /**
+     * Like {@link #key}, keeping a trailing separator so that "star " only
+     * completes to titles with a word after "star".
+     */
+    static String prefixKey(String prefix) {
+        String key = key(prefix);
+        if (!key.isEmpty() && !Character.isLetterOrDigit(prefix.charAt(prefix.length() - 1))) {
+            key += " ";
+        }
+        return key;
+    }
+}
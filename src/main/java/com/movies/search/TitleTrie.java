@@ -0,0 +1,421 @@
+package com.movies.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Path-compressed trie over normalized titles. Every node with more than
+ * {@code k} titles below it keeps the best {@code k} of them by weight, so the
+ * top of any prefix costs the length of the prefix plus {@code k}, whatever
+ * the size of the catalog. Smaller subtrees are enumerated instead, which keeps
+ * those lists to a small share of the nodes.
+ * <p>
+ * Writes only touch the nodes on the path of the changed title. Not thread
+ * safe, {@link TitleSuggester} guards it with a read/write lock.
+ */
+final class TitleTrie {
+
+    static final Comparator<Entry> RANKING = Comparator.comparingLong((Entry entry) -> -entry.weight)
+            .thenComparing(entry -> entry.title)
+            .thenComparingLong(entry -> entry.id);
+
+    private static final char[] NO_CHARS = new char[0];
+    private static final Node[] NO_NODES = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private final int k;
+    private final Node root = new Node("");
+
+    TitleTrie(int k) {
+        this.k = k;
+    }
+
+    /**
+     * A title in the trie. The weight only changes through {@link #raise}.
+     */
+    static final class Entry {
+
+        final long id;
+        final String title;
+        final String key;
+        long weight;
+
+        Entry(long id, String title, String key, long weight) {
+            this.id = id;
+            this.title = title;
+            this.key = key;
+            this.weight = weight;
+        }
+    }
+
+    private static final class Node {
+
+        String label;
+        char[] firsts = NO_CHARS;
+        Node[] children = NO_NODES;
+        Entry[] entries = NO_ENTRIES;
+        int size;
+        Entry[] top;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        int childIndex(char first) {
+            return Arrays.binarySearch(firsts, first);
+        }
+
+        void insertChild(int at, Node child) {
+            char[] newFirsts = new char[firsts.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(firsts, 0, newFirsts, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newFirsts[at] = child.label.charAt(0);
+            newChildren[at] = child;
+            System.arraycopy(firsts, at, newFirsts, at + 1, firsts.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            firsts = newFirsts;
+            children = newChildren;
+        }
+
+        void removeChild(int at) {
+            char[] newFirsts = new char[firsts.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(firsts, 0, newFirsts, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            System.arraycopy(firsts, at + 1, newFirsts, at, firsts.length - at - 1);
+            System.arraycopy(children, at + 1, newChildren, at, children.length - at - 1);
+            firsts = newFirsts;
+            children = newChildren;
+        }
+    }
+
+    int size() {
+        return root.size;
+    }
+
+    void add(Entry entry) {
+        String key = entry.key;
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            int index = node.childIndex(key.charAt(i));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(i));
+                node.insertChild(-index - 1, leaf);
+                node = leaf;
+                path.add(node);
+                break;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                child = split(node, index, common);
+            }
+            node = child;
+            path.add(node);
+            i += common;
+        }
+        node.entries = append(node.entries, entry);
+        for (int at = path.size() - 1; at >= 0; at--) {
+            added(path.get(at), entry);
+        }
+    }
+
+    /**
+     * @return whether the entry was in the trie
+     */
+    boolean remove(Entry entry) {
+        List<Node> path = path(entry.key);
+        if (path == null) {
+            return false;
+        }
+        Node node = path.get(path.size() - 1);
+        int at = indexOf(node.entries, entry);
+        if (at < 0) {
+            return false;
+        }
+        Entry[] entries = new Entry[node.entries.length - 1];
+        System.arraycopy(node.entries, 0, entries, 0, at);
+        System.arraycopy(node.entries, at + 1, entries, at, entries.length - at);
+        node.entries = entries;
+        for (int i = path.size() - 1; i >= 0; i--) {
+            removed(path.get(i), entry);
+        }
+        prune(path);
+        return true;
+    }
+
+    /**
+     * Adds {@code delta} to the weight of an entry in the trie.
+     */
+    void raise(Entry entry, long delta) {
+        List<Node> path = path(entry.key);
+        if (path == null || indexOf(path.get(path.size() - 1).entries, entry) < 0) {
+            return;
+        }
+        entry.weight += delta;
+        for (Node node : path) {
+            if (node.top == null) {
+                continue;
+            }
+            int at = indexOf(node.top, entry);
+            if (at < 0) {
+                offer(node.top, entry);
+                continue;
+            }
+            while (at > 0 && RANKING.compare(node.top[at], node.top[at - 1]) < 0) {
+                Entry previous = node.top[at - 1];
+                node.top[at - 1] = node.top[at];
+                node.top[at] = previous;
+                at--;
+            }
+        }
+    }
+
+    /**
+     * @return the best {@code limit} titles starting with {@code prefix}, {@code limit} at most {@code k}
+     */
+    List<Entry> top(String prefix, int limit) {
+        Node node = find(prefix);
+        return node == null ? Collections.emptyList() : best(node, limit);
+    }
+
+    /**
+     * Like {@link #top}, for the titles starting with a string at edit
+     * distance 1 from {@code prefix}: one character substituted, inserted or
+     * deleted. Titles matching {@code prefix} exactly may be included.
+     */
+    List<Entry> fuzzyTop(String prefix, int limit) {
+        Set<Node> matches = Collections.newSetFromMap(new IdentityHashMap<>());
+        fuzzy(root, 0, prefix, 0, false, matches);
+        Set<Entry> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Entry> candidates = new ArrayList<>();
+        for (Node node : matches) {
+            for (Entry entry : best(node, limit)) {
+                if (seen.add(entry)) {
+                    candidates.add(entry);
+                }
+            }
+        }
+        candidates.sort(RANKING);
+        return candidates.subList(0, Math.min(limit, candidates.size()));
+    }
+
+    /**
+     * Walks the trie one character at a time, {@code depth} characters into
+     * the label of {@code node}, with {@code prefix} read up to {@code position}.
+     * After the single edit is spent the walk is exact.
+     */
+    private void fuzzy(Node node, int depth, String prefix, int position, boolean edited, Set<Node> matches) {
+        if (position == prefix.length()) {
+            if (edited) {
+                matches.add(node);
+            }
+            return;
+        }
+        if (!edited) {
+            fuzzy(node, depth, prefix, position + 1, true, matches);
+        }
+        if (depth < node.label.length()) {
+            fuzzyStep(node, depth + 1, node.label.charAt(depth), prefix, position, edited, matches);
+        } else {
+            for (Node child : node.children) {
+                fuzzyStep(child, 1, child.label.charAt(0), prefix, position, edited, matches);
+            }
+        }
+    }
+
+    private void fuzzyStep(Node next, int depth, char label, String prefix, int position, boolean edited,
+                           Set<Node> matches) {
+        if (label == prefix.charAt(position)) {
+            fuzzy(next, depth, prefix, position + 1, edited, matches);
+        } else if (!edited) {
+            fuzzy(next, depth, prefix, position + 1, true, matches);
+            fuzzy(next, depth, prefix, position, true, matches);
+        }
+    }
+
+    /**
+     * @return the node under which every key starts with {@code prefix}
+     */
+    private Node find(String prefix) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int index = node.childIndex(prefix.charAt(i));
+            if (index < 0) {
+                return null;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, prefix, i);
+            if (common < child.label.length() && i + common < prefix.length()) {
+                return null;
+            }
+            node = child;
+            i += common;
+        }
+        return node;
+    }
+
+    /**
+     * @return the nodes from the root to the one where {@code key} ends, or {@code null}
+     */
+    private List<Node> path(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            int index = node.childIndex(key.charAt(i));
+            if (index < 0 || !key.startsWith(node.children[index].label, i)) {
+                return null;
+            }
+            node = node.children[index];
+            path.add(node);
+            i += node.label.length();
+        }
+        return path;
+    }
+
+    private List<Entry> best(Node node, int limit) {
+        if (node.top != null) {
+            return Arrays.asList(node.top).subList(0, Math.min(limit, node.top.length));
+        }
+        List<Entry> entries = new ArrayList<>(node.size);
+        collect(node, entries);
+        entries.sort(RANKING);
+        return entries.subList(0, Math.min(limit, entries.size()));
+    }
+
+    private static void collect(Node node, List<Entry> into) {
+        Collections.addAll(into, node.entries);
+        for (Node child : node.children) {
+            collect(child, into);
+        }
+    }
+
+    private Node split(Node parent, int index, int at) {
+        Node child = parent.children[index];
+        Node middle = new Node(child.label.substring(0, at));
+        child.label = child.label.substring(at);
+        middle.firsts = new char[]{child.label.charAt(0)};
+        middle.children = new Node[]{child};
+        middle.size = child.size;
+        middle.top = child.top == null ? null : child.top.clone();
+        parent.children[index] = middle;
+        return middle;
+    }
+
+    /**
+     * Drops the nodes left without titles at the end of {@code path} and
+     * merges a remaining node that only leads to one child into that child.
+     */
+    private static void prune(List<Node> path) {
+        int last = path.size() - 1;
+        while (last > 0) {
+            Node node = path.get(last);
+            if (node.entries.length > 0 || node.children.length > 0) {
+                break;
+            }
+            Node parent = path.get(last - 1);
+            parent.removeChild(parent.childIndex(node.label.charAt(0)));
+            last--;
+        }
+        Node node = path.get(last);
+        if (last > 0 && node.entries.length == 0 && node.children.length == 1) {
+            Node only = node.children[0];
+            node.label = node.label + only.label;
+            node.firsts = only.firsts;
+            node.children = only.children;
+            node.entries = only.entries;
+            node.size = only.size;
+            node.top = only.top;
+        }
+    }
+
+    /**
+     * Called bottom-up on the path of a new entry, so children are up to date.
+     */
+    private void added(Node node, Entry entry) {
+        node.size++;
+        if (node.top != null) {
+            offer(node.top, entry);
+        } else if (node.size > k) {
+            node.top = computeTop(node);
+        }
+    }
+
+    /**
+     * Called bottom-up on the path of a removed entry, so children are up to date.
+     */
+    private void removed(Node node, Entry entry) {
+        node.size--;
+        if (node.size <= k) {
+            node.top = null;
+        } else if (indexOf(node.top, entry) >= 0) {
+            node.top = computeTop(node);
+        }
+    }
+
+    private Entry[] computeTop(Node node) {
+        List<Entry> candidates = new ArrayList<>();
+        Collections.addAll(candidates, node.entries);
+        for (Node child : node.children) {
+            if (child.top != null) {
+                Collections.addAll(candidates, child.top);
+            } else {
+                collect(child, candidates);
+            }
+        }
+        candidates.sort(RANKING);
+        return candidates.subList(0, k).toArray(NO_ENTRIES);
+    }
+
+    /**
+     * Inserts {@code entry} into a full top list if it ranks better than its last element.
+     */
+    private static void offer(Entry[] top, Entry entry) {
+        int last = top.length - 1;
+        if (RANKING.compare(entry, top[last]) >= 0) {
+            return;
+        }
+        int at = last;
+        while (at > 0 && RANKING.compare(entry, top[at - 1]) < 0) {
+            top[at] = top[at - 1];
+            at--;
+        }
+        top[at] = entry;
+    }
+
+    private static int commonPrefix(String label, String key, int from) {
+        int length = Math.min(label.length(), key.length() - from);
+        int i = 0;
+        while (i < length && label.charAt(i) == key.charAt(from + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int indexOf(Entry[] entries, Entry entry) {
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i] == entry) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Entry[] append(Entry[] entries, Entry entry) {
+        Entry[] appended = Arrays.copyOf(entries, entries.length + 1);
+        appended[entries.length] = entry;
+        return appended;
+    }
+}
@@ -0,0 +1,112 @@
+package com.movies.stats;
+
+import com.movies.dto.GroupCount;
+import com.movies.entities.Movie;
+import com.movies.events.MovieChange;
+import com.movies.repository.MovieRepository;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory movie cardinalities: the total and {@link Rollup}s by country and
+ * by director. Seeded once from the database at startup and then kept current
+ * from committed {@link MovieChange} events, so reads never touch the
+ * database. With {@code movies.counters.enabled=false} every read falls back
+ * to a COUNT or GROUP BY query.
+ */
+@ApplicationScoped
+public class MovieCounters {
+
+    @Inject
+    MovieRepository movieRepository;
+
+    @ConfigProperty(name = "movies.counters.enabled", defaultValue = "true")
+    boolean enabled;
+
+    private final AtomicLong total = new AtomicLong();
+    private final Rollup byCountry = new Rollup();
+    private final Rollup byDirector = new Rollup();
+
+    @Transactional
+    void onStart(@Observes StartupEvent event) {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    @Transactional
+    public void reload() {
+        byCountry.replaceAll(movieRepository.countByCountry());
+        byDirector.replaceAll(movieRepository.countByDirector());
+        total.set(movieRepository.count());
+    }
+
+    public long count() {
+        return enabled ? total.get() : movieRepository.count();
+    }
+
+    public long countByCountry(String country) {
+        return enabled ? byCountry.get(country) : movieRepository.count("country", country);
+    }
+
+    /**
+     * @param top the number of largest groups to return, or {@code null} for all
+     */
+    public List<GroupCount> statsByCountry(Integer top) {
+        return enabled ? read(byCountry, top) : query(movieRepository.countByCountry(), top);
+    }
+
+    /**
+     * @param top the number of largest groups to return, or {@code null} for all
+     */
+    public List<GroupCount> statsByDirector(Integer top) {
+        return enabled ? read(byDirector, top) : query(movieRepository.countByDirector(), top);
+    }
+
+    private static List<GroupCount> read(Rollup rollup, Integer top) {
+        return top == null ? rollup.all() : rollup.top(top);
+    }
+
+    private static List<GroupCount> query(Map<String, Long> counts, Integer top) {
+        return top == null ? Rollup.sorted(counts) : Rollup.top(counts, top);
+    }
+
+    void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) MovieChange change) {
+        if (!enabled) {
+            return;
+        }
+        switch (change.getType()) {
+            case CREATED -> {
+                total.incrementAndGet();
+                increment(change.getAfter());
+            }
+            case UPDATED -> {
+                decrement(change.getBefore());
+                increment(change.getAfter());
+            }
+            case DELETED -> {
+                total.updateAndGet(value -> Math.max(0, value - 1));
+                decrement(change.getBefore());
+            }
+        }
+    }
+
+    private void increment(Movie movie) {
+        byCountry.increment(movie.getCountry());
+        byDirector.increment(movie.getDirector());
+    }
+
+    private void decrement(Movie movie) {
+        byCountry.decrement(movie.getCountry());
+        byDirector.decrement(movie.getDirector());
+    }
+}
@@ -0,0 +1,82 @@
+package com.movies.stats;
+
+import com.movies.dto.GroupCount;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Materialized {@code GROUP BY key COUNT(*)} kept current with +1/-1 deltas.
+ * Groups whose count drops to zero are removed, so reads cost O(groups).
+ */
+public class Rollup {
+
+    static final Comparator<GroupCount> LARGEST_FIRST = Comparator
+            .comparingLong(GroupCount::getCount).reversed()
+            .thenComparing(GroupCount::getKey);
+
+    private final Map<String, Long> counts = new ConcurrentHashMap<>();
+
+    public void replaceAll(Map<String, Long> snapshot) {
+        counts.clear();
+        counts.putAll(snapshot);
+    }
+
+    public void increment(String key) {
+        if (key != null) {
+            counts.merge(key, 1L, Long::sum);
+        }
+    }
+
+    public void decrement(String key) {
+        if (key != null) {
+            counts.computeIfPresent(key, (k, value) -> value > 1 ? value - 1 : null);
+        }
+    }
+
+    public long get(String key) {
+        return counts.getOrDefault(key, 0L);
+    }
+
+    /**
+     * @return every group, largest first, ties by key
+     */
+    public List<GroupCount> all() {
+        return sorted(counts);
+    }
+
+    /**
+     * @return the {@code n} largest groups, largest first, ties by key
+     */
+    public List<GroupCount> top(int n) {
+        return top(counts, n);
+    }
+
+    static List<GroupCount> sorted(Map<String, Long> counts) {
+        List<GroupCount> groups = new ArrayList<>(counts.size());
+        counts.forEach((key, count) -> groups.add(new GroupCount(key, count)));
+        groups.sort(LARGEST_FIRST);
+        return groups;
+    }
+
+    /**
+     * Keeps a heap of at most {@code n} groups while scanning, so the cost is
+     * O(groups log n) instead of sorting every group.
+     */
+    static List<GroupCount> top(Map<String, Long> counts, int n) {
+        PriorityQueue<GroupCount> heap = new PriorityQueue<>(LARGEST_FIRST.reversed());
+        counts.forEach((key, count) -> {
+            heap.offer(new GroupCount(key, count));
+            if (heap.size() > n) {
+                heap.poll();
+            }
+        });
+        List<GroupCount> groups = new ArrayList<>(heap);
+        groups.sort(LARGEST_FIRST);
+        return groups;
+    }
+}
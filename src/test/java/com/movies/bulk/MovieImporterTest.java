@@ -0,0 +1,146 @@
+package com.movies.bulk;
+
+import com.movies.dto.BulkImportReport;
+import com.movies.entities.Movie;
+import com.movies.events.MovieChange;
+import com.movies.repository.MovieRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class MovieImporterTest {
+
+    private static final int ROWS = 2000;
+    private static final String COUNTRY = "Importland";
+
+    @Inject
+    MovieImporter movieImporter;
+
+    @Inject
+    MovieRepository movieRepository;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    Event<MovieChange> movieChanges;
+
+    /**
+     * Removes the imported movies, the way a delete through the API does, so
+     * that they skew neither row counts nor the catalog statistics of later
+     * tests.
+     */
+    @AfterEach
+    void removeImported() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (Movie movie : movieRepository.list("country", COUNTRY)) {
+                movieRepository.delete(movie);
+                movieChanges.fire(MovieChange.deleted(movie));
+            }
+        });
+    }
+
+    @Test
+    void importsJsonArray() throws IOException {
+        BulkImportReport report = movieImporter.importMovies(stream(
+                "[{\"title\":\"Up\",\"country\":\"Importland\"},{\"title\":\"Coco\",\"country\":\"Importland\"}]"));
+
+        assertEquals(2, report.getImported());
+        assertEquals(0, report.getFailed());
+        assertNotNull(report.getItems().get(0).getId());
+        assertNotNull(report.getItems().get(1).getId());
+    }
+
+    @Test
+    void importsNdjsonAndReportsEachItem() throws IOException {
+        BulkImportReport report = movieImporter.importMovies(stream(
+                "{\"title\":\"Amelie\",\"country\":\"Importland\"}\n"
+                        + "{\"country\":\"Importland\"}\n"
+                        + "{\"title\":\"Roma\",\"country\":\"Importland\"}\n"));
+
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getFailed());
+        BulkImportReport.Item missingTitle = report.getItems().stream()
+                .filter(item -> item.getIndex() == 1)
+                .findFirst()
+                .orElseThrow();
+        assertFalse(missingTitle.isSuccess());
+        assertEquals("title is required", missingTitle.getError());
+        assertNull(report.getStoppedAt());
+    }
+
+    @Test
+    void reportsMalformedInput() throws IOException {
+        BulkImportReport report = movieImporter.importMovies(stream("[{\"title\":\"Her\",\"country\":\"Importland\"}, {\"title\": ]"));
+
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(1, report.getItems().stream().filter(item -> !item.isSuccess()).findFirst().orElseThrow().getIndex());
+        assertEquals(1, report.getStoppedAt());
+    }
+
+    @Test
+    void reportsRolledBackBatchWithoutDatabaseDetails() throws IOException {
+        BulkImportReport report = movieImporter.importMovies(stream(
+                "[{\"title\":\"Ran\",\"country\":\"Importland\"},"
+                        + "{\"title\":\"" + "x".repeat(300) + "\",\"country\":\"Importland\"}]"));
+
+        assertEquals(0, report.getImported());
+        assertEquals(2, report.getFailed());
+        assertTrue(report.getItems().stream().allMatch(item -> MovieImporter.ROLLED_BACK.equals(item.getError())));
+        assertNull(report.getStoppedAt());
+    }
+
+    @Test
+    void batchesStatementsAndTransactions() throws IOException {
+        Statistics statistics = sessionFactory.getStatistics();
+
+        statistics.clear();
+        for (int i = 0; i < ROWS; i++) {
+            Movie movie = movie("Single " + i);
+            QuarkusTransaction.requiringNew().run(() -> {
+                movieRepository.persist(movie);
+                movieChanges.fire(MovieChange.created(movie));
+            });
+        }
+        long rowByRowStatements = statistics.getPrepareStatementCount();
+        long rowByRowTransactions = statistics.getTransactionCount();
+
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < ROWS; i++) {
+            ndjson.append("{\"title\":\"Bulk ").append(i).append("\",\"country\":\"").append(COUNTRY).append("\"}\n");
+        }
+        statistics.clear();
+        BulkImportReport report = movieImporter.importMovies(stream(ndjson.toString()));
+        long bulkStatements = statistics.getPrepareStatementCount();
+        long bulkTransactions = statistics.getTransactionCount();
+
+        assertEquals(ROWS, report.getImported());
+        assertTrue(bulkStatements * 10 < rowByRowStatements,
+                "bulk import should prepare far fewer statements than row by row");
+        assertTrue(bulkTransactions * 100 <= rowByRowTransactions);
+    }
+
+    private static Movie movie(String title) {
+        Movie movie = new Movie();
+        movie.setTitle(title);
+        movie.setCountry(COUNTRY);
+        return movie;
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
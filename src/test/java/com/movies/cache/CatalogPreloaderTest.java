@@ -0,0 +1,56 @@
+package com.movies.cache;
+
+import com.movies.entities.Movie;
+import com.movies.repository.MovieRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class CatalogPreloaderTest {
+
+    @Inject
+    CatalogPreloader catalogPreloader;
+
+    @Inject
+    MovieCache movieCache;
+
+    @Inject
+    MovieRepository movieRepository;
+
+    @Test
+    void preloadsLatestMoviesIntoCache() {
+        List<Long> ids = new ArrayList<>();
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (int i = 0; i < 3; i++) {
+                Movie movie = new Movie();
+                movie.setTitle("Preloaded " + i);
+                movieRepository.persist(movie);
+                ids.add(movie.getId());
+            }
+        });
+        movieCache.invalidateAll();
+
+        catalogPreloader.preload();
+
+        assertTrue(catalogPreloader.isReady());
+        for (Long id : ids) {
+            assertTrue(movieCache.peekById(id).isPresent(), "movie " + id + " was not preloaded");
+        }
+    }
+
+    @Test
+    void reportsReadinessCheck() {
+        given().get("/q/health/ready")
+                .then().statusCode(200)
+                .body("checks.name", hasItem("catalog-preload"));
+    }
+}
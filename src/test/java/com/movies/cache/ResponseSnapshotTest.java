@@ -0,0 +1,25 @@
+package com.movies.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseSnapshotTest {
+
+    @Test
+    void prefersBrotliThenGzip() {
+        assertEquals("br", ResponseSnapshot.negotiate("gzip, deflate, br", true, true));
+        assertEquals("gzip", ResponseSnapshot.negotiate("gzip, deflate, br", false, true));
+        assertEquals("gzip", ResponseSnapshot.negotiate("br;q=0.5, gzip", true, true));
+        assertEquals("br", ResponseSnapshot.negotiate("*", true, true));
+    }
+
+    @Test
+    void fallsBackToIdentity() {
+        assertNull(ResponseSnapshot.negotiate(null, true, true));
+        assertNull(ResponseSnapshot.negotiate("deflate", true, true));
+        assertNull(ResponseSnapshot.negotiate("br;q=0, gzip;q=0", true, true));
+        assertNull(ResponseSnapshot.negotiate("*;q=0, identity", true, true));
+        assertNull(ResponseSnapshot.negotiate("gzip, br", false, false));
+    }
+}
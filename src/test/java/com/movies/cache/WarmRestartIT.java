@@ -0,0 +1,203 @@
+package com.movies.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares a cold and a warm restart of the packaged application in the
+ * {@code persistent} profile. A seed run imports a catalog into a fresh H2
+ * file, reads a hot set of movies and stops, which saves the hot set. The
+ * application is then started once with the preload disabled and once with
+ * it enabled, and each boot reports the time until readiness and the latency
+ * of the first read of every hot movie.
+ * <p>
+ * Runs with {@code ./mvnw verify -DskipITs=false}. Only the preload itself is
+ * asserted; the timings are printed for comparison.
+ */
+public class WarmRestartIT {
+
+    private static final Path APPLICATION = Path.of("target", "quarkus-app", "quarkus-run.jar");
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final int catalogSize = Integer.getInteger("movies.startup.catalog-size", 50_000);
+    private final int hotSetSize = Integer.getInteger("movies.startup.hot-set", 1_000);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void preloadWarmsFirstRequests() throws Exception {
+        assumeTrue(Files.isRegularFile(APPLICATION), "the application is not packaged as a JVM jar");
+        Path dataDir = Files.createTempDirectory(Path.of("target"), "warm-restart");
+
+        List<Long> hotIds;
+        try (Instance seed = start(dataDir, false)) {
+            seed.awaitReady();
+            hotIds = hotSet(seed.seed());
+            for (Long id : hotIds) {
+                assertEquals(200, get(seed.uri("/movies/" + id)).statusCode());
+            }
+        }
+        assertTrue(Files.isRegularFile(dataDir.resolve("hot-movies.txt")), "the hot set was not saved at shutdown");
+
+        Boot cold = boot(dataDir, false, hotIds);
+        Boot warm = boot(dataDir, true, hotIds);
+
+        System.out.printf("%n%-6s %10s %10s %10s %12s %10s%n", "boot", "ready ms", "p50 us", "p99 us", "total ms", "preloaded");
+        cold.print("cold");
+        warm.print("warm");
+        assertTrue(warm.preloaded() > 0, "the warm boot preloaded no movies");
+    }
+
+    private List<Long> hotSet(List<Long> ids) {
+        List<Long> shuffled = new ArrayList<>(ids);
+        Collections.shuffle(shuffled, new Random(42));
+        return List.copyOf(shuffled.subList(0, Math.min(hotSetSize, shuffled.size())));
+    }
+
+    private Boot boot(Path dataDir, boolean preload, List<Long> hotIds) throws Exception {
+        try (Instance instance = start(dataDir, preload)) {
+            long ready = instance.awaitReady();
+            JsonNode health = objectMapper.readTree(get(instance.uri("/q/health/ready")).body());
+            int preloaded = 0;
+            for (JsonNode check : health.path("checks")) {
+                if ("catalog-preload".equals(check.path("name").asText())) {
+                    preloaded = check.path("data").path("movies").asInt();
+                }
+            }
+            long[] latencies = new long[hotIds.size()];
+            for (int i = 0; i < latencies.length; i++) {
+                long start = System.nanoTime();
+                assertEquals(200, get(instance.uri("/movies/" + hotIds.get(i))).statusCode());
+                latencies[i] = System.nanoTime() - start;
+            }
+            return new Boot(ready, latencies, preloaded);
+        }
+    }
+
+    private Instance start(Path dataDir, boolean preload) throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        Path java = Path.of(System.getProperty("java.home"), "bin", "java");
+        ProcessBuilder builder = new ProcessBuilder(java.toString(),
+                "-Dquarkus.profile=persistent",
+                "-Dquarkus.http.port=" + port,
+                "-Dmovies.data-dir=" + dataDir.toAbsolutePath(),
+                "-Dmovies.preload.enabled=" + preload,
+                "-jar", APPLICATION.toString())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(dataDir.resolve("application.log").toFile()));
+        long startedAt = System.nanoTime();
+        return new Instance(builder.start(), port, startedAt);
+    }
+
+    private HttpResponse<String> get(URI uri) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private record Boot(long readyMillis, long[] latencies, int preloaded) {
+
+        void print(String name) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            System.out.printf("%-6s %10d %10d %10d %12d %10d%n", name, readyMillis,
+                    percentile(sorted, 0.50) / 1000, percentile(sorted, 0.99) / 1000,
+                    TimeUnit.NANOSECONDS.toMillis(Arrays.stream(sorted).sum()), preloaded);
+        }
+
+        private static long percentile(long[] sorted, double quantile) {
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)];
+        }
+    }
+
+    private final class Instance implements AutoCloseable {
+
+        private final Process process;
+        private final int port;
+        private final long startedAt;
+
+        private Instance(Process process, int port, long startedAt) {
+            this.process = process;
+            this.port = port;
+            this.startedAt = startedAt;
+        }
+
+        URI uri(String path) {
+            return URI.create("http://localhost:" + port + path);
+        }
+
+        /**
+         * @return milliseconds from the process start until readiness was UP
+         */
+        long awaitReady() throws InterruptedException {
+            long deadline = startedAt + STARTUP_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                assertTrue(process.isAlive(), "the application exited during startup");
+                try {
+                    if (get(uri("/q/health/ready")).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+                    }
+                } catch (IOException e) {
+                    // not listening yet
+                }
+                Thread.sleep(10);
+            }
+            throw new AssertionError("the application was not ready within " + STARTUP_TIMEOUT);
+        }
+
+        /**
+         * Imports the catalog as newline-delimited JSON.
+         *
+         * @return the ids of the imported movies
+         */
+        List<Long> seed() throws IOException, InterruptedException {
+            StringBuilder body = new StringBuilder();
+            for (int i = 0; i < catalogSize; i++) {
+                body.append("{\"title\":\"Warm restart ").append(i)
+                        .append("\",\"country\":\"Country ").append(i % 100)
+                        .append("\",\"director\":\"Director ").append(i % 1000)
+                        .append("\"}\n");
+            }
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/movies/bulk"))
+                    .header("Content-Type", "application/x-ndjson")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode(), response.body());
+            List<Long> ids = new ArrayList<>(catalogSize);
+            for (JsonNode item : objectMapper.readTree(response.body()).path("items")) {
+                ids.add(item.path("id").asLong());
+            }
+            assertEquals(catalogSize, ids.size());
+            return ids;
+        }
+
+        @Override
+        public void close() throws InterruptedException {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.movies.events;
+
+import com.movies.entities.Movie;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedTest {
+
+    private ChangeFeed feed;
+
+    @BeforeEach
+    void createFeed() {
+        feed = new ChangeFeed();
+        feed.replaySize = 3;
+        feed.subscriberBuffer = 2;
+    }
+
+    private void publish(long... ids) {
+        for (long id : ids) {
+            Movie movie = new Movie();
+            movie.setId(id);
+            movie.setTitle("Movie " + id);
+            feed.onChange(MovieChange.created(movie));
+        }
+    }
+
+    private static List<Long> sequences(AssertSubscriber<ChangeFeed.Item> subscriber) {
+        return subscriber.getItems().stream()
+                .filter(item -> !item.reset())
+                .map(item -> item.event().getSequence())
+                .toList();
+    }
+
+    @Test
+    void deliversLiveEventsInOrder() {
+        AssertSubscriber<ChangeFeed.Item> subscriber = feed.subscribe(null)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        publish(10, 11);
+
+        assertEquals(List.of(1L, 2L), sequences(subscriber));
+        assertEquals(11L, subscriber.getItems().get(1).event().getId());
+        assertEquals(MovieChange.Type.CREATED, subscriber.getItems().get(1).event().getType());
+    }
+
+    @Test
+    void resumesAfterLastSequence() {
+        publish(1, 2, 3);
+        AssertSubscriber<ChangeFeed.Item> subscriber = feed.subscribe(1L)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        publish(4);
+
+        assertFalse(subscriber.getItems().get(0).reset());
+        assertEquals(List.of(2L, 3L, 4L), sequences(subscriber));
+    }
+
+    @Test
+    void resetsWhenLastSequenceIsNoLongerRetained() {
+        publish(1, 2, 3, 4, 5);
+        AssertSubscriber<ChangeFeed.Item> subscriber = feed.subscribe(1L)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+
+        assertTrue(subscriber.getItems().get(0).reset());
+        assertEquals(List.of(3L, 4L, 5L), sequences(subscriber));
+    }
+
+    @Test
+    void resetsWhenLastSequenceIsFromAnotherRun() {
+        publish(1);
+        AssertSubscriber<ChangeFeed.Item> subscriber = feed.subscribe(42L)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+
+        assertTrue(subscriber.getItems().get(0).reset());
+        assertEquals(List.of(1L), sequences(subscriber));
+    }
+
+    @Test
+    void dropsSubscriberThatFallsBehindWithoutBlockingPublishers() {
+        AssertSubscriber<ChangeFeed.Item> slow = feed.subscribe(null)
+                .subscribe().withSubscriber(AssertSubscriber.create(0));
+        AssertSubscriber<ChangeFeed.Item> fast = feed.subscribe(null)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+
+        for (long id = 1; id <= 20; id++) {
+            publish(id);
+        }
+
+        assertEquals(20, fast.getItems().size());
+        slow.request(Long.MAX_VALUE);
+        assertNotNull(slow.getFailure());
+        assertTrue(slow.getItems().size() < 20);
+        assertEquals(20, feed.sequence());
+    }
+}
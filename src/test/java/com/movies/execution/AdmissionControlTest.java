@@ -0,0 +1,125 @@
+package com.movies.execution;
+
+import com.movies.execution.AdmissionControl.Permit;
+import com.movies.execution.AdmissionControl.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionControlTest {
+
+    private AdmissionControl admissionControl;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        admissionControl = new AdmissionControl();
+        admissionControl.registry = registry;
+        admissionControl.enabled = true;
+        admissionControl.capacity = 8;
+        admissionControl.initialLimit = 4;
+        admissionControl.minLimit = 1;
+        admissionControl.maxLimit = 6;
+        admissionControl.backoffRatio = 0.5;
+        admissionControl.pointTarget = Duration.ofMinutes(1);
+        admissionControl.writeTarget = Duration.ofMinutes(1);
+        admissionControl.listingTarget = Duration.ZERO;
+    }
+
+    private double rejected(String endpoint, String reason) {
+        var counter = registry.find(AdmissionControl.REJECTED_COUNTER)
+                .tags("endpoint", endpoint, "reason", reason)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private List<Permit> acquire(String endpoint, Priority priority, int count) {
+        List<Permit> permits = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            permits.add(admissionControl.tryAcquire(endpoint, priority).orElseThrow());
+        }
+        return permits;
+    }
+
+    @Test
+    void rejectsCallsBeyondTheEndpointLimit() {
+        List<Permit> permits = acquire("point", Priority.POINT, 4);
+
+        assertTrue(admissionControl.tryAcquire("point", Priority.POINT).isEmpty());
+        assertEquals(1, rejected("point", "limit"));
+        assertTrue(admissionControl.tryAcquire("other", Priority.POINT).isPresent());
+
+        permits.get(0).release();
+        permits.get(0).release();
+        assertTrue(admissionControl.tryAcquire("point", Priority.POINT).isPresent());
+        assertTrue(admissionControl.tryAcquire("point", Priority.POINT).isEmpty());
+    }
+
+    @Test
+    void listingsLeaveCapacityToPointReads() {
+        acquire("list", Priority.LISTING, 4);
+
+        assertTrue(admissionControl.tryAcquire("other-list", Priority.LISTING).isEmpty());
+        assertEquals(1, rejected("other-list", "capacity"));
+        acquire("write", Priority.WRITE, 2);
+        assertTrue(admissionControl.tryAcquire("write", Priority.WRITE).isEmpty());
+        acquire("point", Priority.POINT, 2);
+        assertTrue(admissionControl.tryAcquire("point", Priority.POINT).isEmpty());
+        assertEquals(1, rejected("point", "capacity"));
+    }
+
+    @Test
+    void limitFollowsObservedLatency() {
+        admissionControl.tryAcquire("slow", Priority.LISTING).orElseThrow().release();
+        assertEquals(Optional.of(2), admissionControl.limit("slow"));
+        admissionControl.tryAcquire("slow", Priority.LISTING).orElseThrow().release();
+        admissionControl.tryAcquire("slow", Priority.LISTING).orElseThrow().release();
+        assertEquals(Optional.of(1), admissionControl.limit("slow"));
+
+        for (int round = 0; round < 5; round++) {
+            acquire("fast", Priority.POINT, admissionControl.limit("fast").orElse(4)).forEach(Permit::release);
+        }
+        assertEquals(Optional.of(6), admissionControl.limit("fast"));
+        assertEquals(6, registry.find(AdmissionControl.LIMIT_GAUGE).tag("endpoint", "fast").gauge().value());
+    }
+
+    @Test
+    void admitFailsFastWithoutRunningTheCall() throws Exception {
+        CompletableFuture<String> slow = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+        List<CompletionStage<String>> admitted = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            admitted.add(admissionControl.admit("point", Priority.POINT, () -> {
+                calls.incrementAndGet();
+                return slow;
+            }));
+        }
+
+        CompletionStage<String> refused = admissionControl.admit("point", Priority.POINT, () -> {
+            calls.incrementAndGet();
+            return slow;
+        });
+
+        assertEquals(4, calls.get());
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> refused.toCompletableFuture().get());
+        assertTrue(AdmissionControl.rejected(failure.getCause()));
+
+        slow.complete("done");
+        assertEquals("done", admitted.get(0).toCompletableFuture().get());
+        assertEquals("ok", admissionControl.admit("point", Priority.POINT,
+                () -> CompletableFuture.completedFuture("ok")).toCompletableFuture().get());
+    }
+}
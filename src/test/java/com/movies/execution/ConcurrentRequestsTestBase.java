@@ -0,0 +1,229 @@
+package com.movies.execution;
+
+import com.movies.entities.Movie;
+import com.movies.metrics.QueryMetrics;
+import com.movies.repository.MovieRepository;
+import com.movies.repository.RecordingStatementInspector;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires concurrent HTTP requests at the movie endpoints and logs throughput
+ * and latency, so the worker and virtual thread modes can be compared on the
+ * same data. Subclasses pick the mode through a test profile, with a worker
+ * pool of {@value #WORKER_THREADS} threads in both so that the difference
+ * shows once requests block on the database, and without response snapshots.
+ */
+abstract class ConcurrentRequestsTestBase {
+
+    private static final Logger LOG = Logger.getLogger(ConcurrentRequestsTestBase.class);
+
+    private static final int CLIENTS = 64;
+    private static final int REQUESTS = 500;
+    private static final int MOVIES = 100;
+    static final int WORKER_THREADS = 8;
+    private static final int BLOCKED_REQUESTS = 4 * WORKER_THREADS;
+    private static final Duration SLOW_INSERT = Duration.ofMillis(250);
+
+    @Inject
+    EndpointExecutor endpointExecutor;
+
+    @Inject
+    MovieRepository movieRepository;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    @PersistenceUnitExtension
+    RecordingStatementInspector statementInspector;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    abstract EndpointExecutor.Mode expectedMode();
+
+    /**
+     * @return the name prefix of the threads endpoints run on in {@link #expectedMode()}
+     */
+    abstract String threadNamePrefix();
+
+    static Map<String, String> configOverrides(EndpointExecutor.Mode mode) {
+        return Map.of(
+                "movies.execution.mode", mode.name().toLowerCase(Locale.ROOT),
+                "quarkus.thread-pool.max-threads", String.valueOf(WORKER_THREADS),
+                "movies.snapshots.enabled", "false");
+    }
+
+    @BeforeEach
+    void seed() {
+        ids.clear();
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (int i = 0; i < MOVIES; i++) {
+                Movie movie = new Movie();
+                movie.setTitle("Concurrent " + expectedMode() + " " + i);
+                movie.setCountry("Loadland");
+                movieRepository.persist(movie);
+                ids.add(movie.getId());
+            }
+        });
+    }
+
+    @Test
+    void runsInConfiguredMode() throws Exception {
+        assertEquals(expectedMode(), endpointExecutor.mode());
+        String thread = endpointExecutor.submit(() -> Thread.currentThread().getName()).toCompletableFuture().get();
+        assertTrue(thread.startsWith(threadNamePrefix()), thread);
+    }
+
+    /**
+     * Sends four times as many writes as there are worker threads while every
+     * insert takes {@link #SLOW_INSERT}. The worker pool serves them in four
+     * waves at least, virtual threads all at once.
+     */
+    @Test
+    void overlapsRequestsBlockedOnTheDatabase() throws Exception {
+        statementInspector.slow("insert into Movie ", SLOW_INSERT);
+        long start = System.nanoTime();
+        int[] statuses;
+        try {
+            statuses = run("slow POST /movies", BLOCKED_REQUESTS, i -> given()
+                    .contentType(ContentType.JSON)
+                    .body("{\"title\":\"Blocked " + expectedMode() + " " + i + "\",\"country\":\"Loadland\"}")
+                    .post("/movies")
+                    .statusCode());
+        } finally {
+            statementInspector.fast();
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertTrue(Arrays.stream(statuses).allMatch(status -> status == 201));
+        Duration waves = SLOW_INSERT.multipliedBy(BLOCKED_REQUESTS / WORKER_THREADS);
+        if (expectedMode() == EndpointExecutor.Mode.WORKER) {
+            assertTrue(elapsed.compareTo(waves) >= 0, "took " + elapsed);
+        } else {
+            assertTrue(elapsed.compareTo(waves) < 0, "took " + elapsed);
+        }
+    }
+
+    @Test
+    void servesConcurrentLookups() throws Exception {
+        int[] statuses = run("GET /movies/{id}", REQUESTS, i -> given()
+                .get("/movies/{id}", ids.get(i % MOVIES))
+                .statusCode());
+
+        assertTrue(Arrays.stream(statuses).allMatch(status -> status == 200));
+    }
+
+    @Test
+    void servesConcurrentPagesAndCounts() throws Exception {
+        int[] statuses = run("GET /movies?limit=100 and /movies/size", REQUESTS, i -> given()
+                .get(i % 2 == 0 ? "/movies?limit=100" : "/movies/size")
+                .statusCode());
+
+        assertTrue(Arrays.stream(statuses).allMatch(status -> status == 200));
+    }
+
+    /**
+     * With snapshots off every request for the country page loads it.
+     * Requests arriving while a load is in flight join it, so each flight
+     * leader runs the only query. Snapshots stay off because their background
+     * rebuilds run the same query outside of the flights.
+     */
+    @Test
+    void coalescesConcurrentCountryReads() throws Exception {
+        double queries = queries("findByCountry");
+        double leaders = coalesced("leader");
+        double followers = coalesced("follower");
+
+        int[] statuses = run("GET /movies/country/Loadland", REQUESTS, i -> given()
+                .get("/movies/country/Loadland")
+                .statusCode());
+
+        assertTrue(Arrays.stream(statuses).allMatch(status -> status == 200));
+        double led = coalesced("leader") - leaders;
+        LOG.infof("GET /movies/country/Loadland [%s]: %.0f queries, %.0f requests joined one in flight",
+                expectedMode(), led, coalesced("follower") - followers);
+        assertTrue(led >= 1);
+        assertEquals(led, queries("findByCountry") - queries);
+    }
+
+    private double queries(String query) {
+        Timer timer = registry.find(QueryMetrics.QUERY_TIMER)
+                .tags("query", query, "outcome", QueryMetrics.SUCCESS)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private double coalesced(String outcome) {
+        Counter counter = registry.find(SingleFlight.REQUESTS_COUNTER)
+                .tags("flight", "country", "outcome", outcome)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @Test
+    void commitsConcurrentWrites() throws Exception {
+        int[] statuses = run("POST /movies", REQUESTS, i -> given()
+                .contentType(ContentType.JSON)
+                .body("{\"title\":\"Written " + expectedMode() + " " + i + "\",\"country\":\"Loadland\"}")
+                .post("/movies")
+                .statusCode());
+
+        assertTrue(Arrays.stream(statuses).allMatch(status -> status == 201));
+        assertEquals(200, given().get("/movies/title/Written " + expectedMode() + " 0").statusCode());
+    }
+
+    private int[] run(String label, int requests, IntFunction<Integer> request) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            long[] latencies = new long[requests];
+            List<Future<Integer>> results = new ArrayList<>(requests);
+            long start = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                results.add(clients.submit(() -> {
+                    long sent = System.nanoTime();
+                    int status = request.apply(index);
+                    latencies[index] = System.nanoTime() - sent;
+                    return status;
+                }));
+            }
+            int[] statuses = new int[requests];
+            for (int i = 0; i < requests; i++) {
+                statuses[i] = results.get(i).get();
+            }
+            long elapsed = System.nanoTime() - start;
+
+            Arrays.sort(latencies);
+            LOG.infof("%s [%s]: %d requests from %d clients in %d ms (%.0f req/s), p50 %.2f ms, p99 %.2f ms",
+                    label, expectedMode(), requests, CLIENTS, elapsed / 1_000_000,
+                    requests * 1e9 / elapsed,
+                    latencies[requests / 2] / 1e6, latencies[requests * 99 / 100] / 1e6);
+            return statuses;
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+}
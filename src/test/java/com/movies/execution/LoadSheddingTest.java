@@ -0,0 +1,184 @@
+package com.movies.execution;
+
+import com.movies.entities.Movie;
+import com.movies.repository.MovieRepository;
+import com.movies.repository.RecordingStatementInspector;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.response.Response;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.HttpHeaders;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Floods the catalog listing while its query is slowed down, with a small
+ * worker pool and every read going to the database. Without admission control
+ * the listings take every worker thread and point reads queue behind them.
+ * With it the listings are shed once they exceed their target latency, the
+ * flooding clients back off for the Retry-After they are sent, and point
+ * reads keep a bounded latency.
+ * <p>
+ * Point reads are timed alone first. Under the flood their median must stay
+ * below one slowed listing, which it exceeds when they queue behind the
+ * listings, and their p99 within two slowed listings of the p99 alone.
+ */
+@QuarkusTest
+@TestProfile(LoadSheddingTest.Profile.class)
+public class LoadSheddingTest {
+
+    private static final Logger LOG = Logger.getLogger(LoadSheddingTest.class);
+    private static final int MOVIES = 500;
+    private static final int FLOODERS = 16;
+    private static final int POINT_READS = 300;
+    private static final Duration SLOW_LISTING = Duration.ofMillis(100);
+
+    @Inject
+    MovieRepository movieRepository;
+
+    @Inject
+    @PersistenceUnitExtension
+    RecordingStatementInspector statementInspector;
+
+    @Inject
+    MeterRegistry registry;
+
+    public static class Profile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.ofEntries(
+                    Map.entry("movies.admission.enabled", "true"),
+                    Map.entry("movies.admission.capacity", "8"),
+                    Map.entry("movies.admission.min-limit", "1"),
+                    Map.entry("movies.admission.listing.target-latency", "50ms"),
+                    Map.entry("movies.snapshots.enabled", "false"),
+                    Map.entry("movies.coalescing.enabled", "false"),
+                    Map.entry("movies.cache.enabled", "false"),
+                    Map.entry("quarkus.hibernate-orm.second-level-caching-enabled", "false"),
+                    Map.entry("quarkus.thread-pool.max-threads", "8"));
+        }
+    }
+
+    @AfterEach
+    void fast() {
+        statementInspector.fast();
+    }
+
+    @Test
+    void pointReadsStayFastWhileListingsAreShed() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (int i = 0; i < MOVIES; i++) {
+                Movie movie = new Movie();
+                movie.setTitle("Shed " + i);
+                movie.setCountry("Shedland");
+                movieRepository.persist(movie);
+                ids.add(movie.getId());
+            }
+        });
+        long[] baseline = pointReads(ids);
+        statementInspector.slow(" order by ", SLOW_LISTING);
+
+        AtomicBoolean flooding = new AtomicBoolean(true);
+        AtomicInteger listed = new AtomicInteger();
+        AtomicInteger shed = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(FLOODERS);
+        List<Future<?>> flood = new ArrayList<>();
+        for (int i = 0; i < FLOODERS; i++) {
+            flood.add(clients.submit(() -> {
+                while (flooding.get()) {
+                    Response response = given().queryParam("limit", 50).get("/movies");
+                    if (response.statusCode() == 503) {
+                        shed.incrementAndGet();
+                        Thread.sleep(Long.parseLong(response.header(HttpHeaders.RETRY_AFTER)) * 1000);
+                    } else {
+                        assertEquals(200, response.statusCode());
+                        listed.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long[] loaded;
+        try {
+            Thread.sleep(500);
+            loaded = pointReads(ids);
+        } finally {
+            flooding.set(false);
+            for (Future<?> client : flood) {
+                client.get();
+            }
+            clients.shutdown();
+        }
+
+        double baselineP99 = p99(baseline);
+        double p50 = loaded[POINT_READS / 2] / 1e6;
+        double p99 = p99(loaded);
+        LOG.infof("GET /movies/{id} alone: p99 %.2f ms. Under a GET /movies flood: p50 %.2f ms, p99 %.2f ms, "
+                + "%d listings served, %d shed, listing limit %.0f", baselineP99, p50, p99, listed.get(), shed.get(),
+                registry.find(AdmissionControl.LIMIT_GAUGE).tag("endpoint", "getMovies").gauge().value());
+        assertTrue(shed.get() > 0);
+        assertEquals(0, rejected("getMovie"));
+        assertTrue(p50 < SLOW_LISTING.toMillis(), "p50 " + p50 + " ms");
+        assertTrue(p99 < baselineP99 + 2 * SLOW_LISTING.toMillis(),
+                "p99 " + p99 + " ms, " + baselineP99 + " ms alone");
+    }
+
+    @Test
+    void exportHoldsAListingPermitWhileStreaming() throws InterruptedException {
+        given().get("/movies/export").then().statusCode(200);
+
+        Gauge inFlight = registry.find(AdmissionControl.IN_FLIGHT_GAUGE)
+                .tags("endpoint", "exportMovies", "priority", "LISTING")
+                .gauge();
+        // the permit is released once the body is written, which may complete after the client has read it
+        for (int i = 0; i < 100 && inFlight.value() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, inFlight.value());
+    }
+
+    private static long[] pointReads(List<Long> ids) {
+        long[] nanos = new long[POINT_READS];
+        for (int i = 0; i < POINT_READS; i++) {
+            long start = System.nanoTime();
+            given().get("/movies/{id}", ids.get(i % MOVIES)).then().statusCode(200);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static double p99(long[] sorted) {
+        return sorted[POINT_READS * 99 / 100] / 1e6;
+    }
+
+    private double rejected(String endpoint) {
+        return registry.find(AdmissionControl.REJECTED_COUNTER).tag("endpoint", endpoint).counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+}
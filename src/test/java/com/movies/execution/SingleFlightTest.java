@@ -0,0 +1,96 @@
+package com.movies.execution;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    private SingleFlight singleFlight;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight();
+        singleFlight.registry = registry;
+        singleFlight.enabled = true;
+        singleFlight.maxWait = Duration.ofSeconds(5);
+    }
+
+    private double count(String outcome) {
+        var counter = registry.find(SingleFlight.REQUESTS_COUNTER).tags("flight", "test", "outcome", outcome).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @Test
+    void concurrentCallsShareOneExecution() throws Exception {
+        CompletableFuture<String> query = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletionStage<String> leader = singleFlight.execute("test", "k", () -> {
+            calls.incrementAndGet();
+            return query;
+        });
+        CompletionStage<String> follower = singleFlight.execute("test", "k", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("second");
+        });
+        CompletionStage<String> other = singleFlight.execute("test", "other",
+                () -> CompletableFuture.completedFuture("other"));
+        query.complete("first");
+
+        assertEquals("first", leader.toCompletableFuture().get());
+        assertEquals("first", follower.toCompletableFuture().get());
+        assertEquals("other", other.toCompletableFuture().get());
+        assertEquals(1, calls.get());
+        assertEquals(2, count("leader"));
+        assertEquals(1, count("follower"));
+    }
+
+    @Test
+    void finishedFlightIsNotReused() throws Exception {
+        singleFlight.execute("test", "k", () -> CompletableFuture.completedFuture("first")).toCompletableFuture().get();
+
+        assertEquals("second", singleFlight.execute("test", "k", () -> CompletableFuture.completedFuture("second"))
+                .toCompletableFuture().get());
+        assertEquals(2, count("leader"));
+    }
+
+    @Test
+    void followersGiveUpAfterMaxWait() {
+        singleFlight.maxWait = Duration.ofMillis(50);
+        CompletableFuture<String> query = new CompletableFuture<>();
+        CompletionStage<String> leader = singleFlight.execute("test", "k", () -> query);
+        CompletionStage<String> follower = singleFlight.execute("test", "k", CompletableFuture::new);
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> follower.toCompletableFuture().get());
+        assertTrue(SingleFlight.timedOut(failure.getCause()));
+        assertEquals(1, count("timeout"));
+        query.complete("late");
+        assertEquals("late", leader.toCompletableFuture().join());
+    }
+
+    @Test
+    void failuresAreSharedAndNotRemembered() throws Exception {
+        CompletableFuture<String> query = new CompletableFuture<>();
+        CompletionStage<String> leader = singleFlight.execute("test", "k", () -> query);
+        CompletionStage<String> follower = singleFlight.execute("test", "k", CompletableFuture::new);
+        query.completeExceptionally(new IllegalStateException("database down"));
+
+        assertInstanceOf(IllegalStateException.class,
+                assertThrows(ExecutionException.class, () -> leader.toCompletableFuture().get()).getCause());
+        assertInstanceOf(IllegalStateException.class,
+                assertThrows(ExecutionException.class, () -> follower.toCompletableFuture().get()).getCause());
+        assertEquals("retried", singleFlight.execute("test", "k", () -> CompletableFuture.completedFuture("retried"))
+                .toCompletableFuture().get());
+    }
+}
@@ -0,0 +1,35 @@
+package com.movies.execution;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+
+import java.util.Map;
+
+/**
+ * Configures virtual threads. They run on Java 21 and later, while older
+ * runtimes, the build's Java 17 included, must fall back to the worker pool
+ * and behave like {@link WorkerModeTest}.
+ */
+@QuarkusTest
+@TestProfile(VirtualModeTest.Profile.class)
+public class VirtualModeTest extends ConcurrentRequestsTestBase {
+
+    @Override
+    EndpointExecutor.Mode expectedMode() {
+        return EndpointExecutor.virtualThreadsAvailable() ? EndpointExecutor.Mode.VIRTUAL : EndpointExecutor.Mode.WORKER;
+    }
+
+    @Override
+    String threadNamePrefix() {
+        return EndpointExecutor.virtualThreadsAvailable() ? "movies-vthread-" : "executor-thread-";
+    }
+
+    public static class Profile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return configOverrides(EndpointExecutor.Mode.VIRTUAL);
+        }
+    }
+}
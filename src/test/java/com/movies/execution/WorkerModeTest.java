@@ -0,0 +1,30 @@
+package com.movies.execution;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+
+import java.util.Map;
+
+@QuarkusTest
+@TestProfile(WorkerModeTest.Profile.class)
+public class WorkerModeTest extends ConcurrentRequestsTestBase {
+
+    @Override
+    EndpointExecutor.Mode expectedMode() {
+        return EndpointExecutor.Mode.WORKER;
+    }
+
+    @Override
+    String threadNamePrefix() {
+        return "executor-thread-";
+    }
+
+    public static class Profile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return configOverrides(EndpointExecutor.Mode.WORKER);
+        }
+    }
+}
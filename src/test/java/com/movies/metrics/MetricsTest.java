@@ -0,0 +1,38 @@
+package com.movies.metrics;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+
+@QuarkusTest
+public class MetricsTest {
+
+    @Test
+    void exposesOperationQueryHibernateAndPoolMetrics() {
+        given().contentType(ContentType.JSON)
+                .body("{\"title\":\"Metropolis\",\"country\":\"Germany\"}")
+                .post("/movies")
+                .then().statusCode(201);
+        given().get("/movies/country/Germany").then().statusCode(200);
+        given().get("/movies/title/Metropolis").then().statusCode(200);
+
+        given().get("/q/metrics")
+                .then()
+                .statusCode(200)
+                .body(allOf(
+                        containsString("movies_operation_seconds_bucket{class=\"com.movies.resources.MovieResource\",exception=\"none\",method=\"getByCountry\""),
+                        containsString("movies_operation_seconds{class=\"com.movies.resources.MovieResource\",exception=\"none\",method=\"createMovie\",quantile=\"0.999\"}"),
+                        containsString("movies_repository_query_seconds_count{outcome=\"success\",query=\"findByCountry\"}"),
+                        containsString("movies_repository_rows_sum{query=\"findByTitle\"}"),
+                        containsString("movies_coalescing_requests_total{flight=\"country\",outcome=\"leader\"}"),
+                        containsString("hibernate_entities_loads_total"),
+                        containsString("hibernate_flushes_total"),
+                        containsString("hibernate_second_level_cache_requests_total"),
+                        containsString("agroal_blocking_time_max_milliseconds"),
+                        containsString("agroal_awaiting_count")));
+    }
+}
@@ -0,0 +1,54 @@
+package com.movies.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryMetricsTest {
+
+    private QueryMetrics queryMetrics;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        queryMetrics = new QueryMetrics();
+        queryMetrics.registry = registry;
+    }
+
+    private long timed(String query, String outcome) {
+        var timer = registry.find(QueryMetrics.QUERY_TIMER).tags("query", query, "outcome", outcome).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    @Test
+    void timesSuccessfulAndFailedQueries() {
+        assertEquals(List.of(1, 2), queryMetrics.record("list", () -> List.of(1, 2), List::size));
+        assertThrows(IllegalStateException.class, () -> queryMetrics.<List<Integer>>record("list", () -> {
+            throw new IllegalStateException("connection lost");
+        }, List::size));
+
+        assertEquals(1, timed("list", QueryMetrics.SUCCESS));
+        assertEquals(1, timed("list", QueryMetrics.FAILURE));
+        assertEquals(1, registry.find(QueryMetrics.ROWS_SUMMARY).tag("query", "list").summary().count());
+    }
+
+    @Test
+    void timesStreamsThatFailToOpen() {
+        assertThrows(IllegalStateException.class, () -> queryMetrics.<Integer>record("stream", () -> {
+            throw new IllegalStateException("connection lost");
+        }));
+        try (Stream<Integer> rows = queryMetrics.record("stream", () -> Stream.of(1, 2, 3))) {
+            assertEquals(List.of(1, 2, 3), rows.toList());
+        }
+
+        assertEquals(1, timed("stream", QueryMetrics.FAILURE));
+        assertEquals(1, timed("stream", QueryMetrics.SUCCESS));
+        assertEquals(3, registry.find(QueryMetrics.ROWS_SUMMARY).tag("query", "stream").summary().totalAmount());
+    }
+}
@@ -0,0 +1,80 @@
+package com.movies.replica;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplicaRouterTest {
+
+    private ReplicaRouter replicaRouter;
+    private Replica first;
+    private Replica second;
+    private long committed;
+
+    @BeforeEach
+    void setUp() {
+        first = replica("replica-1");
+        second = replica("replica-2");
+        replicaRouter = new ReplicaRouter();
+        replicaRouter.replicas = List.of(first, second);
+        replicaRouter.balancing = ReplicaRouter.Balancing.ROUND_ROBIN;
+        replicaRouter.readYourWrites = false;
+        replicaRouter.maxLag = Duration.ofMinutes(1);
+        replicaRouter.replicator = new Replicator() {
+            @Override
+            long committed() {
+                return committed;
+            }
+        };
+    }
+
+    private static Replica replica(String name) {
+        Replica replica = new Replica(name, null);
+        replica.attached = true;
+        replica.appliedSequence = 0;
+        return replica;
+    }
+
+    @Test
+    void roundRobinTakesReplicasInTurn() {
+        assertSame(first, replicaRouter.pick(2));
+        assertSame(second, replicaRouter.pick(2));
+        assertSame(first, replicaRouter.pick(2));
+        assertSame(first, replicaRouter.pick(1));
+    }
+
+    @Test
+    void leastLoadedTakesTheReplicaWithFewestReadsInFlight() {
+        replicaRouter.balancing = ReplicaRouter.Balancing.LEAST_LOADED;
+        first.inFlight.set(3);
+        second.inFlight.set(1);
+
+        for (int i = 0; i < 4; i++) {
+            assertSame(second, replicaRouter.pick(2));
+        }
+        second.inFlight.set(5);
+        assertSame(first, replicaRouter.pick(2));
+        second.reachable = false;
+        first.inFlight.set(10);
+        assertSame(first, replicaRouter.pick(2));
+    }
+
+    @Test
+    void upToDateLoadsSkipReplicasThatAreBehind() {
+        committed = 2;
+        first.appliedSequence = 2;
+        second.appliedSequence = 1;
+
+        assertSame(first, replicaRouter.pick(2));
+        assertSame(second, replicaRouter.pick(2));
+        for (int i = 0; i < 4; i++) {
+            assertSame(first, replicaRouter.upToDate(() -> replicaRouter.pick(2)));
+        }
+        first.appliedSequence = 1;
+        assertNull(replicaRouter.upToDate(() -> replicaRouter.pick(2)));
+    }
+}
@@ -0,0 +1,153 @@
+package com.movies.replica;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two in-memory H2 replicas kept up to date by {@link Replicator}, with a
+ * replication delay so that reads can outrun it.
+ */
+@QuarkusTest
+@TestProfile(ReplicaRoutingTest.Profile.class)
+public class ReplicaRoutingTest {
+
+    @Inject
+    ReplicaRouter replicaRouter;
+
+    @Inject
+    Replicator replicator;
+
+    @Inject
+    MeterRegistry registry;
+
+    public static class Profile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.ofEntries(
+                    Map.entry("quarkus.datasource.\"replica-1\".db-kind", "h2"),
+                    Map.entry("quarkus.datasource.\"replica-1\".jdbc.url", "jdbc:h2:mem:test-replica-1;DB_CLOSE_DELAY=-1"),
+                    Map.entry("quarkus.datasource.\"replica-2\".db-kind", "h2"),
+                    Map.entry("quarkus.datasource.\"replica-2\".jdbc.url", "jdbc:h2:mem:test-replica-2;DB_CLOSE_DELAY=-1"),
+                    Map.entry("movies.replicas.names", "replica-1,replica-2"),
+                    Map.entry("movies.replicas.replication-delay", "300ms"),
+                    Map.entry("movies.replicas.health-interval", "1H"),
+                    Map.entry("movies.cache.enabled", "false"),
+                    Map.entry("movies.snapshots.enabled", "false"),
+                    Map.entry("quarkus.hibernate-orm.second-level-caching-enabled", "false"));
+        }
+    }
+
+    @AfterEach
+    void resync() {
+        replicaRouter.setActiveReplicas(0);
+        replicaRouter.setActiveReplicas(2);
+    }
+
+    private static long create(String title) {
+        given().contentType(ContentType.JSON)
+                .body("{\"title\":\"" + title + "\",\"description\":\"Replicated\","
+                        + "\"director\":\"" + title + " director\",\"country\":\"Replicaland\"}")
+                .post("/movies")
+                .then().statusCode(201);
+        return given().get("/movies/title/{title}", title).then().statusCode(200).extract().jsonPath().getLong("id");
+    }
+
+    private String title(long id) {
+        return given().get("/movies/{id}", id).then().statusCode(200).extract().jsonPath().getString("title");
+    }
+
+    private double reads(String dataSource, String outcome) {
+        Counter counter = registry.find(ReplicaRouter.READS_COUNTER)
+                .tags("datasource", dataSource, "outcome", outcome)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private void awaitReplication() throws InterruptedException {
+        long committed = replicator.committed();
+        for (Replica replica : replicaRouter.replicas()) {
+            for (int i = 0; i < 100 && replica.appliedSequence < committed; i++) {
+                Thread.sleep(20);
+            }
+            assertTrue(replica.appliedSequence >= committed, replica.name + " did not catch up");
+        }
+    }
+
+    @Test
+    void readsAlternateBetweenReplicas() throws Exception {
+        long id = create("Nosferatu");
+        awaitReplication();
+        double first = reads("replica-1", "routed");
+        double second = reads("replica-2", "routed");
+        double primary = reads(ReplicaRouter.PRIMARY, "fallback");
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals("Nosferatu", title(id));
+        }
+
+        assertEquals(2, reads("replica-1", "routed") - first);
+        assertEquals(2, reads("replica-2", "routed") - second);
+        assertEquals(primary, reads(ReplicaRouter.PRIMARY, "fallback"));
+    }
+
+    @Test
+    void readsTheirWritesFromThePrimaryUntilReplicasCatchUp() throws Exception {
+        long id = create("Faust");
+        awaitReplication();
+        double primary = reads(ReplicaRouter.PRIMARY, "fallback");
+
+        given().contentType(ContentType.JSON)
+                .body("{\"title\":\"Faust (1926)\"}")
+                .patch("/movies/{id}", id)
+                .then().statusCode(200);
+
+        assertEquals("Faust (1926)", title(id));
+        assertEquals(1, reads(ReplicaRouter.PRIMARY, "fallback") - primary);
+        awaitReplication();
+        double routed = reads("replica-1", "routed") + reads("replica-2", "routed");
+        assertEquals("Faust (1926)", title(id));
+        assertEquals(1, reads("replica-1", "routed") + reads("replica-2", "routed") - routed);
+    }
+
+    @Test
+    void fallsBackToThePrimaryWhenAReplicaFails() throws Exception {
+        long id = create("Sunrise");
+        awaitReplication();
+        Replica first = replicaRouter.replicas().get(0);
+        try (Connection connection = first.dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE MOVIE");
+        }
+        double failed = reads(first.name, "failed");
+        double second = reads("replica-2", "routed");
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals("Sunrise", title(id));
+        }
+
+        assertEquals(1, reads(first.name, "failed") - failed);
+        assertTrue(reads("replica-2", "routed") - second >= 2);
+        given().get("/movies").then().statusCode(200);
+
+        replicaRouter.checkHealth();
+        assertFalse(first.reachable);
+        for (int i = 0; i < 4; i++) {
+            assertEquals("Sunrise", title(id));
+        }
+        assertEquals(1, reads(first.name, "failed") - failed);
+    }
+}
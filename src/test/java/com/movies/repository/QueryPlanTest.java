@@ -0,0 +1,197 @@
+package com.movies.repository;
+
+import com.movies.entities.Movie;
+import com.movies.events.MovieChange;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs H2 EXPLAIN on the SQL behind every selective repository query and fails
+ * when one of them falls back to a table scan. listAll, count and the startup
+ * findLatestIds read the whole table by design and are not checked.
+ * <p>
+ * The seeded movies are created and deleted with the change events the API
+ * fires, so the counters, indexes and caches of the shared test application
+ * still match the database once the class is done.
+ */
+@QuarkusTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class QueryPlanTest {
+
+    private static final int SEED_ROWS = 2000;
+
+    @Inject
+    MovieRepository movieRepository;
+
+    @Inject
+    @PersistenceUnitExtension
+    RecordingStatementInspector statementInspector;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    Event<MovieChange> movieChanges;
+
+    enum RepositoryQuery {
+        FIND_BY_COUNTRY {
+            @Override
+            void run(MovieRepository repository) {
+                repository.findByCountry("Plan country 7");
+            }
+        },
+        FIND_BY_TITLE {
+            @Override
+            void run(MovieRepository repository) {
+                repository.findByTitle("Plan movie 42");
+            }
+        },
+        FIND_BY_ID {
+            @Override
+            void run(MovieRepository repository) {
+                repository.findByIdOptional(42L);
+            }
+        },
+        FIND_BY_IDS {
+            @Override
+            void run(MovieRepository repository) {
+                repository.findByIds(List.of(42L, 43L, 1500L));
+            }
+        },
+        FIND_VERSION {
+            @Override
+            void run(MovieRepository repository) {
+                repository.findVersion(42L);
+            }
+        },
+        FIND_FIRST_PAGE {
+            @Override
+            void run(MovieRepository repository) {
+                repository.findPage(null, 20);
+            }
+        },
+        FIND_NEXT_PAGE {
+            @Override
+            void run(MovieRepository repository) {
+                repository.findPage(500L, 20);
+            }
+        },
+        FIND_SUMMARIES_BY_COUNTRY {
+            @Override
+            void run(MovieRepository repository) {
+                repository.findSummariesByCountry("Plan country 7");
+            }
+        },
+        FIND_SUMMARY_PAGE {
+            @Override
+            void run(MovieRepository repository) {
+                repository.findSummaryPage(500L, 20);
+            }
+        },
+        STREAM_ALL_BY_ID {
+            @Override
+            void run(MovieRepository repository) {
+                try (Stream<Movie> movies = repository.streamAllById(100)) {
+                    movies.findFirst();
+                }
+            }
+        },
+        COUNT_BY_COUNTRY {
+            @Override
+            void run(MovieRepository repository) {
+                repository.countByCountry();
+            }
+        },
+        COUNT_BY_DIRECTOR {
+            @Override
+            void run(MovieRepository repository) {
+                repository.countByDirector();
+            }
+        };
+
+        abstract void run(MovieRepository repository);
+    }
+
+    @BeforeEach
+    void seed() throws SQLException {
+        if (QuarkusTransaction.requiringNew().call(() -> movieRepository.count("title like 'Plan movie %'")) > 0) {
+            return;
+        }
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (int i = 0; i < SEED_ROWS; i++) {
+                Movie movie = new Movie();
+                movie.setTitle("Plan movie " + i);
+                movie.setCountry("Plan country " + (i % 50));
+                movie.setDirector("Plan director " + (i % 200));
+                movieRepository.persist(movie);
+                movieChanges.fire(MovieChange.created(movie));
+            }
+        });
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        }
+    }
+
+    @AfterAll
+    void removeSeed() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (Movie movie : movieRepository.list("title like 'Plan movie %'")) {
+                movieRepository.delete(movie);
+                movieChanges.fire(MovieChange.deleted(movie));
+            }
+        });
+    }
+
+    @ParameterizedTest
+    @EnumSource(RepositoryQuery.class)
+    void doesNotScanTable(RepositoryQuery query) throws SQLException {
+        sessionFactory.getCache().evictAllRegions();
+        statementInspector.start();
+        QuarkusTransaction.requiringNew().run(() -> query.run(movieRepository));
+        List<String> statements = statementInspector.stop();
+
+        assertFalse(statements.isEmpty(), query + " did not reach the database");
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertFalse(plan.contains(".tableScan"), query + " scans the table:\n" + plan);
+        }
+    }
+
+    private String explain(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setString(i, "1");
+            }
+            try (ResultSet plan = statement.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        }
+    }
+}
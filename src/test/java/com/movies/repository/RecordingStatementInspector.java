@@ -0,0 +1,81 @@
+package com.movies.repository;
+
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Captures the SQL Hibernate generates while recording is on, so tests can
+ * inspect the exact statements behind each repository method. It can also
+ * hold back the statements containing a fragment, on the thread that holds
+ * the connection, to make the database look slow.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class RecordingStatementInspector implements StatementInspector {
+
+    private final List<String> statements = new ArrayList<>();
+    private volatile boolean recording;
+    private volatile String slowFragment;
+    private volatile Duration slowDelay;
+    private final AtomicInteger held = new AtomicInteger();
+
+    @Override
+    public String inspect(String sql) {
+        String fragment = slowFragment;
+        if (fragment != null && sql.contains(fragment)) {
+            held.incrementAndGet();
+            try {
+                Thread.sleep(slowDelay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                held.decrementAndGet();
+            }
+        }
+        if (recording) {
+            synchronized (statements) {
+                statements.add(sql);
+            }
+        }
+        return sql;
+    }
+
+    public void start() {
+        synchronized (statements) {
+            statements.clear();
+        }
+        recording = true;
+    }
+
+    /**
+     * Delays every statement containing {@code fragment} until {@link #fast()}.
+     */
+    public void slow(String fragment, Duration delay) {
+        slowDelay = delay;
+        slowFragment = fragment;
+    }
+
+    public void fast() {
+        slowFragment = null;
+    }
+
+    /**
+     * @return the number of statements held back right now
+     */
+    public int held() {
+        return held.get();
+    }
+
+    public List<String> stop() {
+        recording = false;
+        synchronized (statements) {
+            return new ArrayList<>(statements);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.movies.repository;
+
+import com.movies.entities.Movie;
+import com.movies.resources.MovieResource;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class SecondLevelCacheTest {
+
+    @Inject
+    MovieRepository movieRepository;
+
+    @Inject
+    MovieResource movieResource;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp(){
+        statistics = sessionFactory.getStatistics();
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    @Test
+    void findByCountrySecondCallSkipsDatasource(){
+        create("Cacheland", "Cached");
+
+        statistics.clear();
+        assertEquals(1, findByCountry("Cacheland").size());
+        long statements = statistics.getPrepareStatementCount();
+        assertEquals(1, statements);
+
+        assertEquals(1, findByCountry("Cacheland").size());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryRegionStatistics(MovieRepository.QUERY_CACHE_REGION).getHitCount());
+    }
+
+    @Test
+    void findByTitleSecondCallSkipsDatasource(){
+        create("Titleland", "Unique cached title");
+
+        statistics.clear();
+        assertTrue(findByTitle("Unique cached title").isPresent());
+        long statements = statistics.getPrepareStatementCount();
+
+        assertTrue(findByTitle("Unique cached title").isPresent());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void writesThroughResourceEvictRegions(){
+        Long first = create("Evictland", "First");
+        findByCountry("Evictland");
+        assertTrue(sessionFactory.getCache().containsEntity(Movie.class, first));
+
+        create("Evictland", "Second");
+        statistics.clear();
+        assertEquals(2, findByCountry("Evictland").size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        movieResource.deleteById(first, null).toCompletableFuture().join();
+        sleep();
+        assertFalse(sessionFactory.getCache().containsEntity(Movie.class, first));
+        statistics.clear();
+        assertEquals(1, findByCountry("Evictland").size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private Long create(String country, String title){
+        Movie movie = new Movie();
+        movie.setTitle(title);
+        movie.setCountry(country);
+        movieResource.createMovie(movie).toCompletableFuture().join();
+        // Hibernate treats a query result cached in the same clock tick as the
+        // last write to the table as stale, so leave the write a tick behind.
+        sleep();
+        return movie.getId();
+    }
+
+    private static void sleep(){
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<Movie> findByCountry(String country){
+        return QuarkusTransaction.requiringNew().call(() -> movieRepository.findByCountry(country));
+    }
+
+    private Optional<Movie> findByTitle(String title){
+        return QuarkusTransaction.requiringNew().call(() -> movieRepository.findByTitle(title));
+    }
+}
@@ -0,0 +1,97 @@
+package com.movies.repository;
+
+import com.movies.dto.MovieSummary;
+import com.movies.entities.Movie;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class SummaryProjectionTest {
+
+    private static final String COUNTRY = "Projectionland";
+
+    @Inject
+    MovieRepository movieRepository;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    @PersistenceUnitExtension
+    RecordingStatementInspector statementInspector;
+
+    @BeforeEach
+    void seed() {
+        if (QuarkusTransaction.requiringNew().call(() -> movieRepository.count("country", COUNTRY)) > 0) {
+            return;
+        }
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (int i = 0; i < 30; i++) {
+                Movie movie = new Movie();
+                movie.setTitle("Projected " + i);
+                movie.setDescription("A long description that list views never show " + i);
+                movie.setCountry(COUNTRY);
+                movieRepository.persist(movie);
+            }
+        });
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    @Test
+    void summaryPageSkipsEntitiesAndUnusedColumns() {
+        List<MovieSummary> page = assertProjected(() -> movieRepository.findSummaryPage(null, 10));
+
+        assertEquals(10, page.size());
+        assertTrue(page.get(0).getId() < page.get(1).getId());
+    }
+
+    @Test
+    void summariesByCountryMatchEntityQuery() {
+        List<MovieSummary> summaries = assertProjected(() -> movieRepository.findSummariesByCountry(COUNTRY));
+        List<Movie> movies = QuarkusTransaction.requiringNew().call(() -> movieRepository.findByCountry(COUNTRY));
+
+        assertEquals(movies.size(), summaries.size());
+        for (int i = 0; i < movies.size(); i++) {
+            assertEquals(movies.get(i).getId(), summaries.get(i).getId());
+            assertEquals(movies.get(i).getTitle(), summaries.get(i).getTitle());
+            assertEquals(COUNTRY, summaries.get(i).getCountry());
+        }
+    }
+
+    private List<MovieSummary> assertProjected(Supplier<List<MovieSummary>> query) {
+        Statistics statistics = sessionFactory.getStatistics();
+        long loads = statistics.getEntityLoadCount();
+        statementInspector.start();
+        List<MovieSummary> result = QuarkusTransaction.requiringNew().call(() -> {
+            List<MovieSummary> rows = query.get();
+            assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount(),
+                    "projection should not add entities to the persistence context");
+            return rows;
+        });
+        List<String> statements = statementInspector.stop();
+
+        assertEquals(loads, statistics.getEntityLoadCount());
+        assertFalse(statements.isEmpty());
+        for (String sql : statements) {
+            assertFalse(sql.toLowerCase(Locale.ROOT).contains("description"), sql);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,106 @@
+package com.movies.resources;
+
+import com.movies.cache.CatalogVersion;
+import com.movies.events.ChangeFeed;
+import com.movies.events.MovieChange;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.smallrye.mutiny.subscription.Cancellable;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class ChangeStreamTest {
+
+    @Inject
+    ChangeFeed changeFeed;
+
+    @Inject
+    CatalogVersion catalogVersion;
+
+    @TestHTTPResource("/movies/changes")
+    URI changes;
+
+    @Test
+    void replaysCommittedWritesAfterLastEventId() throws Exception {
+        long before = changeFeed.sequence();
+        given().contentType(ContentType.JSON)
+                .body("{\"title\":\"Tabu\",\"country\":\"Streamland\"}")
+                .post("/movies")
+                .then().statusCode(201);
+        long id = given().get("/movies/title/Tabu").then().statusCode(200).extract().jsonPath().getLong("id");
+        given().delete("/movies/{id}", id).then().statusCode(204);
+
+        HttpRequest request = HttpRequest.newBuilder(changes)
+                .header("Accept", "text/event-stream")
+                .header("Last-Event-ID", Long.toString(before))
+                .build();
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient()
+                .send(request, HttpResponse.BodyHandlers.ofLines());
+        List<String> lines;
+        try (Stream<String> body = response.body()) {
+            lines = body.filter(line -> line.startsWith("id:") || line.startsWith("event:") || line.startsWith("data:"))
+                    .map(line -> line.replaceFirst(": ?", ":"))
+                    .limit(6)
+                    .toList();
+        }
+
+        assertEquals(200, response.statusCode());
+        assertEquals("id:" + (before + 1), lines.get(0));
+        assertEquals("event:created", lines.get(1));
+        assertTrue(lines.get(2).contains("\"title\":\"Tabu\""), lines.get(2));
+        assertEquals("id:" + (before + 2), lines.get(3));
+        assertEquals("event:deleted", lines.get(4));
+        assertTrue(lines.get(5).contains("\"id\":" + id), lines.get(5));
+    }
+
+    /**
+     * A subscriber that reads the movie back while handling the event sees
+     * the committed change, and the catalog version that includes it.
+     */
+    @Test
+    void publishesAfterCachesAndVersionAreUpdated() throws Exception {
+        given().contentType(ContentType.JSON)
+                .body("{\"title\":\"Sunrise at dawn\",\"country\":\"Streamland\"}")
+                .post("/movies")
+                .then().statusCode(201);
+        long id = given().get("/movies/title/Sunrise at dawn").then().statusCode(200).extract().jsonPath().getLong("id");
+        given().get("/movies/{id}", id).then().statusCode(200);
+        String version = catalogVersion.current();
+
+        CompletableFuture<List<String>> seen = new CompletableFuture<>();
+        Cancellable subscription = changeFeed.subscribe(null).subscribe().with(item -> {
+            if (item.event() != null && item.event().getType() == MovieChange.Type.UPDATED
+                    && item.event().getId() == id) {
+                seen.complete(List.of(
+                        given().get("/movies/{id}", id).then().extract().jsonPath().getString("title"),
+                        catalogVersion.current()));
+            }
+        });
+        try {
+            given().contentType(ContentType.JSON)
+                    .body("{\"title\":\"Sunrise at dusk\"}")
+                    .patch("/movies/{id}", id)
+                    .then().statusCode(200);
+
+            List<String> read = seen.get(5, TimeUnit.SECONDS);
+            assertEquals("Sunrise at dusk", read.get(0));
+            assertNotEquals(version, read.get(1));
+        } finally {
+            subscription.cancel();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.movies.resources;
+
+import com.movies.repository.RecordingStatementInspector;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.response.ExtractableResponse;
+import io.restassured.response.Response;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.emptyString;
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class ConditionalRequestsTest {
+
+    @Inject
+    @PersistenceUnitExtension
+    RecordingStatementInspector statementInspector;
+
+    private static ExtractableResponse<Response> create(String title) {
+        given().contentType(ContentType.JSON)
+                .body("{\"title\":\"" + title + "\",\"country\":\"Etagland\"}")
+                .post("/movies")
+                .then().statusCode(201);
+        return given().get("/movies/title/{title}", title).then().statusCode(200).extract();
+    }
+
+    @Test
+    void getByIdAnswersNotModifiedForCurrentETag() {
+        long id = create("Nosferatu").jsonPath().getLong("id");
+        String etag = given().get("/movies/{id}", id).then().statusCode(200).extract().header("ETag");
+
+        assertEquals("\"" + id + ".0\"", etag);
+        given().header("If-None-Match", etag)
+                .get("/movies/{id}", id)
+                .then().statusCode(304).header("ETag", etag).body(emptyString());
+        given().header("If-None-Match", "W/" + etag)
+                .get("/movies/{id}", id)
+                .then().statusCode(304);
+        given().header("If-None-Match", "\"" + id + ".7\"")
+                .get("/movies/{id}", id)
+                .then().statusCode(200);
+    }
+
+    @Test
+    void putHonorsIfMatchAndBumpsVersion() {
+        ExtractableResponse<Response> created = create("Faust");
+        long id = created.jsonPath().getLong("id");
+        String etag = created.header("ETag");
+
+        String updated = given().contentType(ContentType.JSON)
+                .header("If-Match", etag)
+                .body("{\"title\":\"Faust (1926)\"}")
+                .put("/movies/{id}/{title}", id, "Faust (1926)")
+                .then().statusCode(200).extract().header("ETag");
+        assertNotEquals(etag, updated);
+        given().get("/movies/{id}", id).then().statusCode(200).header("ETag", updated);
+
+        given().contentType(ContentType.JSON)
+                .header("If-Match", etag)
+                .body("{\"title\":\"Lost edit\"}")
+                .put("/movies/{id}/{title}", id, "Lost edit")
+                .then().statusCode(412).header("ETag", updated);
+        given().get("/movies/title/{title}", "Faust (1926)").then().statusCode(200);
+    }
+
+    @Test
+    void deleteHonorsIfMatch() {
+        ExtractableResponse<Response> created = create("Sunrise");
+        long id = created.jsonPath().getLong("id");
+
+        given().header("If-Match", "\"" + id + ".9\"")
+                .delete("/movies/{id}", id)
+                .then().statusCode(412);
+        given().header("If-Match", created.header("ETag"))
+                .delete("/movies/{id}", id)
+                .then().statusCode(204);
+        given().get("/movies/{id}", id).then().statusCode(404);
+    }
+
+    /**
+     * Holds the DELETE back after it has loaded and matched the movie, updates
+     * the movie meanwhile, and expects the version check of the delete to
+     * answer 412.
+     */
+    @Test
+    void deleteAnswersPreconditionFailedOnConcurrentUpdate() throws Exception {
+        ExtractableResponse<Response> created = create("Tabu");
+        long id = created.jsonPath().getLong("id");
+        String etag = created.header("ETag");
+
+        statementInspector.slow("delete from Movie ", Duration.ofSeconds(1));
+        CompletableFuture<Integer> deleted;
+        try {
+            deleted = CompletableFuture.supplyAsync(() -> given().header("If-Match", etag)
+                    .delete("/movies/{id}", id)
+                    .statusCode());
+            for (int i = 0; i < 100 && statementInspector.held() == 0; i++) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, statementInspector.held());
+            given().contentType(ContentType.JSON)
+                    .body("{\"title\":\"Tabu (1931)\"}")
+                    .put("/movies/{id}/{title}", id, "Tabu (1931)")
+                    .then().statusCode(200);
+        } finally {
+            statementInspector.fast();
+        }
+
+        assertEquals(412, deleted.get());
+        given().get("/movies/{id}", id).then().statusCode(200).header("ETag", "\"" + id + ".1\"");
+    }
+
+    @Test
+    void catalogETagChangesOnWrites() {
+        String etag = given().get("/movies?limit=5").then().statusCode(200).extract().header("ETag");
+
+        given().header("If-None-Match", etag).get("/movies?limit=5").then().statusCode(304);
+        given().header("If-None-Match", etag).get("/movies/country/Etagland").then().statusCode(304);
+
+        create("Metropolis 2");
+        String changed = given().header("If-None-Match", etag)
+                .get("/movies?limit=5")
+                .then().statusCode(200).extract().header("ETag");
+        assertNotEquals(etag, changed);
+    }
+}
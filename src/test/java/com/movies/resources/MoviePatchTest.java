@@ -0,0 +1,124 @@
+package com.movies.resources;
+
+import com.movies.events.ChangeFeed;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class MoviePatchTest {
+
+    private static final String MERGE_PATCH = "application/merge-patch+json";
+
+    @Inject
+    ChangeFeed changeFeed;
+
+    private static JsonPath create(String title) {
+        given().contentType(ContentType.JSON)
+                .body("{\"title\":\"" + title + "\",\"description\":\"Silent\","
+                        + "\"director\":\"" + title + " director\",\"country\":\"Patchland\"}")
+                .post("/movies")
+                .then().statusCode(201);
+        return given().get("/movies/title/{title}", title).then().statusCode(200).extract().jsonPath();
+    }
+
+    @Test
+    void patchChangesOnlyPresentFields() {
+        long id = create("City Girl").getLong("id");
+
+        JsonPath patched = given().contentType(MERGE_PATCH)
+                .body("{\"director\":\"F. W. Murnau (City Girl)\",\"description\":null}")
+                .patch("/movies/{id}", id)
+                .then().statusCode(200).header("ETag", "\"" + id + ".1\"")
+                .extract().jsonPath();
+
+        assertEquals("City Girl", patched.getString("title"));
+        assertEquals("F. W. Murnau (City Girl)", patched.getString("director"));
+        assertNull(patched.getString("description"));
+        assertEquals("Patchland", patched.getString("country"));
+        JsonPath stored = given().get("/movies/{id}", id).then().statusCode(200).extract().jsonPath();
+        assertEquals("F. W. Murnau (City Girl)", stored.getString("director"));
+        assertNull(stored.getString("description"));
+    }
+
+    @Test
+    void patchHonorsIfMatchAndRejectsBlankTitle() {
+        long id = create("Tartuffe").getLong("id");
+
+        given().contentType(ContentType.JSON)
+                .header("If-Match", "\"" + id + ".5\"")
+                .body("{\"country\":\"Germany\"}")
+                .patch("/movies/{id}", id)
+                .then().statusCode(412).header("ETag", "\"" + id + ".0\"");
+        given().contentType(ContentType.JSON)
+                .body("{\"title\":\" \"}")
+                .patch("/movies/{id}", id)
+                .then().statusCode(400);
+        given().contentType(ContentType.JSON)
+                .body("{\"country\":\"Germany\"}")
+                .patch("/movies/{id}", Long.MAX_VALUE)
+                .then().statusCode(404);
+        given().get("/movies/{id}", id).then().statusCode(200).header("ETag", "\"" + id + ".0\"");
+    }
+
+    @Test
+    void batchPatchReportsEachMovie() {
+        long first = create("Phantom").getLong("id");
+        long second = create("Schloss Vogeloed").getLong("id");
+
+        JsonPath report = given().contentType(ContentType.JSON)
+                .body("[{\"id\":" + first + ",\"country\":\"Weimar\"},"
+                        + "{\"id\":" + Long.MAX_VALUE + ",\"country\":\"Weimar\"},"
+                        + "{\"id\":" + second + ",\"version\":3,\"country\":\"Weimar\"}]")
+                .patch("/movies")
+                .then().statusCode(200).extract().jsonPath();
+
+        assertEquals(1, report.getInt("updated"));
+        assertEquals(1, report.getInt("notFound"));
+        assertEquals(1, report.getInt("conflicts"));
+        assertEquals("UPDATED", report.getString("items[0].status"));
+        assertEquals(1, report.getLong("items[0].version"));
+        assertEquals("NOT_FOUND", report.getString("items[1].status"));
+        assertEquals("CONFLICT", report.getString("items[2].status"));
+        assertEquals(0, report.getLong("items[2].version"));
+        assertEquals("Weimar", given().get("/movies/{id}", first).then().extract().jsonPath().getString("country"));
+        assertEquals("Patchland", given().get("/movies/{id}", second).then().extract().jsonPath().getString("country"));
+    }
+
+    @Test
+    void batchPatchReportsNoOpPatchAsUnchanged() {
+        long id = create("Nosferatu unchanged").getLong("id");
+        long sequence = changeFeed.sequence();
+
+        JsonPath report = given().contentType(ContentType.JSON)
+                .body("[{\"id\":" + id + ",\"country\":\"Patchland\",\"description\":\"Silent\"}]")
+                .patch("/movies")
+                .then().statusCode(200).extract().jsonPath();
+
+        assertEquals(0, report.getInt("updated"));
+        assertEquals(1, report.getInt("unchanged"));
+        assertEquals("UNCHANGED", report.getString("items[0].status"));
+        assertEquals(0, report.getLong("items[0].version"));
+        assertEquals(sequence, changeFeed.sequence());
+        given().get("/movies/{id}", id).then().statusCode(200).header("ETag", "\"" + id + ".0\"");
+    }
+
+    @Test
+    void batchPatchRejectsInvalidBatches() {
+        long id = create("Der Letzte Mann").getLong("id");
+
+        for (String body : new String[]{
+                "[]",
+                "[{\"country\":\"Weimar\"}]",
+                "[{\"id\":" + id + ",\"country\":\"A\"},{\"id\":" + id + ",\"country\":\"B\"}]",
+                "[{\"id\":" + id + ",\"title\":null}]"}) {
+            given().contentType(ContentType.JSON).body(body).patch("/movies").then().statusCode(400);
+        }
+        given().get("/movies/{id}", id).then().statusCode(200).header("ETag", "\"" + id + ".0\"");
+    }
+}
@@ -1,5 +1,15 @@
 package com.movies.resources;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movies.cache.MovieCache;
+import com.movies.cache.ResponseSnapshots;
+import com.movies.dto.GroupCount;
+import com.movies.dto.MovieBatch;
+import com.movies.dto.MoviePage;
+import com.movies.dto.MovieSummary;
+import com.movies.dto.MovieView;
+import com.movies.dto.SearchResults;
 import com.movies.entities.Movie;
 import com.movies.repository.MovieRepository;
 import io.quarkus.hibernate.orm.panache.PanacheQuery;
@@ -7,6 +17,7 @@ import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.jboss.resteasy.reactive.RestResponse;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,9 +26,15 @@ import org.mockito.ArgumentMatcher;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -31,10 +48,21 @@ public class MovieResourceTest {
     @Inject
     MovieResource movieResource;
 
+    @Inject
+    MovieCache movieCache;
+
+    @Inject
+    ResponseSnapshots responseSnapshots;
+
+    @Inject
+    ObjectMapper objectMapper;
+
     private Movie movie;
 
     @BeforeEach
     void setUp(){
+        movieCache.invalidateAll();
+        responseSnapshots.invalidateAll();
         movie = new Movie();
         movie.setTitle("Shrek");
         movie.setDescription("ShrekDesc");
@@ -43,13 +71,25 @@ public class MovieResourceTest {
         movie.setId(1L);
     }
 
+    /**
+     * Catalog reads answer with the snapshot's encoded JSON.
+     */
+    private <T> T entity(Response response, TypeReference<T> type){
+        try {
+            return objectMapper.readValue((byte[]) response.getEntity(), type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @Test
     void getAll(){
         List<Movie> movies = new ArrayList<>();
         movies.add(movie);
-        when(movieRepository.listAll()).thenReturn(movies);
-        Response response = movieResource.getAll();
-        List<Movie> entity = (List<Movie>) response.getEntity();
+        when(movieRepository.findPage(null, 21)).thenReturn(movies);
+        Response response = movieResource.getAll(null, null, false, MovieView.FULL, null, null, null).toCompletableFuture().join();
+        MoviePage<Movie> page = entity(response, new TypeReference<>() {});
+        List<Movie> entity = page.getItems();
 
         assertNotNull(response);
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
@@ -62,11 +102,167 @@ public class MovieResourceTest {
         assertEquals("Gato de botas", entity.get(0).getDirector());
     }
 
+    @Test
+    void getAllNextPage(){
+        Movie second = new Movie();
+        second.setId(2L);
+        Movie third = new Movie();
+        third.setId(3L);
+        when(movieRepository.findPage(null, 3)).thenReturn(new ArrayList<>(List.of(movie, second, third)));
+
+        Response response = movieResource.getAll(2, null, false, MovieView.FULL, null, null, null).toCompletableFuture().join();
+        MoviePage<Movie> page = entity(response, new TypeReference<>() {});
+
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals(2, page.getItems().size());
+        assertNotNull(page.getNext());
+        assertNotNull(response.getLink("next"));
+
+        when(movieRepository.findPage(2L, 3)).thenReturn(new ArrayList<>(List.of(third)));
+        Response nextResponse = movieResource.getAll(2, page.getNext(), false, MovieView.FULL, null, null, null).toCompletableFuture().join();
+        MoviePage<Movie> nextPage = entity(nextResponse, new TypeReference<>() {});
+
+        assertEquals(1, nextPage.getItems().size());
+        assertEquals(3L, nextPage.getItems().get(0).getId());
+        assertNull(nextPage.getNext());
+        assertNull(nextResponse.getLink("next"));
+    }
+
+    @Test
+    void getAllSummaryView(){
+        List<MovieSummary> summaries = List.of(
+                new MovieSummary(1L, "Shrek", "Pantano"),
+                new MovieSummary(2L, "Shrek 2", "Pantano"),
+                new MovieSummary(3L, "Shrek 3", "Pantano"));
+        when(movieRepository.findSummaryPage(null, 3)).thenReturn(summaries);
+
+        Response response = movieResource.getAll(2, null, false, MovieView.SUMMARY, null, null, null).toCompletableFuture().join();
+        MoviePage<MovieSummary> page = entity(response, new TypeReference<>() {});
+
+        assertEquals(2, page.getItems().size());
+        assertEquals("Shrek 2", page.getItems().get(1).getTitle());
+        assertTrue(response.getLink("next").getUri().getQuery().contains("view=summary"));
+        verify(movieRepository, never()).findPage(any(), anyInt());
+    }
+
+    @Test
+    void getAllCapsPageSize(){
+        when(movieRepository.findPage(null, 101)).thenReturn(new ArrayList<>());
+        Response response = movieResource.getAll(5000, null, false, MovieView.FULL, null, null, null).toCompletableFuture().join();
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        verify(movieRepository).findPage(null, 101);
+    }
+
+    @Test
+    void getAllInvalidCursor(){
+        Response response = movieResource.getAll(10, "not-a-cursor", false, MovieView.FULL, null, null, null).toCompletableFuture().join();
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+        verify(movieRepository, never()).findPage(any(), anyInt());
+    }
+
+    @Test
+    void getAllUnpagedDisabled(){
+        Response response = movieResource.getAll(null, null, true, MovieView.FULL, null, null, null).toCompletableFuture().join();
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+        verify(movieRepository, never()).listAll();
+    }
+
+    @Test
+    void getAllByIdsKeepsRequestOrderAndMarksMissing(){
+        Movie second = new Movie();
+        second.setId(2L);
+        second.setTitle("Shrek 2");
+        when(movieRepository.findByIds(any())).thenReturn(List.of(movie, second));
+
+        Response response = movieResource.getAll(null, null, false, MovieView.FULL, List.of("2,9", "1"), null, null)
+                .toCompletableFuture().join();
+        MovieBatch batch = (MovieBatch) response.getEntity();
+
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals(List.of(2L, 9L, 1L), batch.getItems().stream().map(MovieBatch.Item::getId).toList());
+        assertEquals("Shrek 2", batch.getItems().get(0).getMovie().getTitle());
+        assertFalse(batch.getItems().get(1).isFound());
+        assertEquals(2, batch.getFound());
+        assertEquals(1, batch.getMissing());
+        verify(movieRepository).findByIds(List.of(2L, 9L, 1L));
+        verify(movieRepository, never()).findPage(any(), anyInt());
+    }
+
+    @Test
+    void batchGetLoadsOnlyUncachedIds(){
+        when(movieRepository.findByIdOptional(1L)).thenReturn(Optional.of(movie));
+        movieResource.getById(1L, null).toCompletableFuture().join();
+        when(movieRepository.findByIds(any())).thenReturn(List.of());
+
+        Response response = movieResource.batchGetMovies(List.of(1L, 5L, 1L)).toCompletableFuture().join();
+        MovieBatch batch = (MovieBatch) response.getEntity();
+
+        assertEquals(3, batch.getItems().size());
+        assertEquals("Shrek", batch.getItems().get(2).getMovie().getTitle());
+        assertFalse(batch.getItems().get(1).isFound());
+        verify(movieRepository).findByIds(List.of(5L));
+    }
+
+    @Test
+    void batchGetRejectsEmptyOversizedAndMalformedRequests(){
+        List<Long> oversized = LongStream.rangeClosed(1, 501).boxed().toList();
+
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(),
+                movieResource.batchGetMovies(List.of()).toCompletableFuture().join().getStatus());
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(),
+                movieResource.batchGetMovies(oversized).toCompletableFuture().join().getStatus());
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(),
+                movieResource.getAll(null, null, false, MovieView.FULL, List.of("1,x"), null, null)
+                        .toCompletableFuture().join().getStatus());
+        verify(movieRepository, never()).findByIds(any());
+    }
+
+    @Test
+    void exportMovies() throws Exception {
+        Movie second = new Movie();
+        second.setId(2L);
+        second.setTitle("Shrek 2");
+        when(movieRepository.streamAllById(anyInt())).thenReturn(Stream.of(movie, second));
+
+        Response response = movieResource.exportMovies();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(output);
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"title\":\"Shrek\""));
+        assertTrue(lines[1].contains("\"title\":\"Shrek 2\""));
+        verify(movieRepository, never()).listAll();
+    }
+
+    @Test
+    void searchFollowsCommittedWrites(){
+        when(movieRepository.isPersistent(any(Movie.class))).thenReturn(true);
+        movie.setId(77L);
+        movie.setDescription("Verdant marshland adventure");
+        movieResource.createMovie(movie).toCompletableFuture().join();
+
+        Response response = movieResource.searchMovies("marshland", null, 0).toCompletableFuture().join();
+        SearchResults results = (SearchResults) response.getEntity();
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals(1, results.getTotal());
+        assertEquals(77L, results.getItems().get(0).getId());
+
+        when(movieRepository.findByIdOptional(77L)).thenReturn(Optional.of(movie));
+        movieResource.deleteById(77L, null).toCompletableFuture().join();
+        assertEquals(0, ((SearchResults) movieResource.searchMovies("marshland", null, 0).toCompletableFuture().join().getEntity()).getTotal());
+        verify(movieRepository).persist(movie);
+        verify(movieRepository).delete(movie);
+        verify(movieRepository).flush();
+        verifyNoMoreInteractions(ignoreStubs(movieRepository));
+    }
+
     @Test
     void getByIdOK(){
         when(movieRepository.findByIdOptional(1L)).thenReturn(Optional.of(movie));
 
-        Response response = movieResource.getById(1L);
+        Response response = movieResource.getById(1L, null).toCompletableFuture().join();
         Movie entity = (Movie) response.getEntity();
 
         assertNotNull(response);
@@ -82,22 +278,70 @@ public class MovieResourceTest {
     @Test
     void getByIdKO(){
         when(movieRepository.findByIdOptional(1L)).thenReturn(Optional.empty());
-        Response response = movieResource.getById(1L);
+        Response response = movieResource.getById(1L, null).toCompletableFuture().join();
         assertNotNull(response);
         assertEquals(Response.Status.NOT_FOUND.getStatusCode(), response.getStatus());
         assertNull(response.getEntity());
     }
 
     @Test
-    void getByTitleOK(){
+    void getByIdNotModifiedWithoutLoadingEntity(){
+        when(movieRepository.findVersion(1L)).thenReturn(Optional.of(3L));
+
+        Response response = movieResource.getById(1L, "\"1.3\"").toCompletableFuture().join();
+
+        assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), response.getStatus());
+        assertEquals("1.3", response.getEntityTag().getValue());
+        assertNull(response.getEntity());
+        verify(movieRepository, never()).findByIdOptional(1L);
+    }
+
+    @Test
+    void getByIdServedFromCache(){
+        when(movieRepository.findByIdOptional(1L)).thenReturn(Optional.of(movie));
+
+        movieResource.getById(1L, null).toCompletableFuture().join();
+        Response response = movieResource.getById(1L, null).toCompletableFuture().join();
+
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals("Shrek", ((Movie) response.getEntity()).getTitle());
+        verify(movieRepository, times(1)).findByIdOptional(1L);
+    }
+
+    @Test
+    void getByTitleServedFromIdLookup(){
+        when(movieRepository.findByIdOptional(1L)).thenReturn(Optional.of(movie));
+
+        movieResource.getById(1L, null).toCompletableFuture().join();
+        Response response = movieResource.getByTitle("Shrek", null).toCompletableFuture().join();
+
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        verify(movieRepository, never()).findByTitle(anyString());
+    }
+
+    @Test
+    void cacheInvalidatedByCommittedWrites(){
+        when(movieRepository.findByIdOptional(1L)).thenReturn(Optional.of(movie));
+        movieResource.getById(1L, null).toCompletableFuture().join();
+
+        Movie updatedMovie = new Movie();
+        updatedMovie.setTitle("Azul");
+        movieResource.updateMovieById(1L, null, updatedMovie).toCompletableFuture().join();
+
+        Response response = movieResource.getById(1L, null).toCompletableFuture().join();
+        assertEquals("Azul", ((Movie) response.getEntity()).getTitle());
 
-        PanacheQuery<Movie> query = Mockito.mock(PanacheQuery.class);
-        when(query.page(Mockito.any())).thenReturn(query);
-        when(query.singleResultOptional()).thenReturn(Optional.of(movie));
+        movieResource.deleteById(1L, null).toCompletableFuture().join();
+        when(movieRepository.findByIdOptional(1L)).thenReturn(Optional.empty());
+        assertEquals(Response.Status.NOT_FOUND.getStatusCode(), movieResource.getById(1L, null).toCompletableFuture().join().getStatus());
+    }
+
+    @Test
+    void getByTitleOK(){
 
-        when(movieRepository.find("title", "Shrek")).thenReturn(query);
+        when(movieRepository.findByTitle("Shrek")).thenReturn(Optional.of(movie));
 
-        Response response = movieResource.getByTitle("Shrek");
+        Response response = movieResource.getByTitle("Shrek", null).toCompletableFuture().join();
 
         assertNotNull(response);
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
@@ -112,13 +356,9 @@ public class MovieResourceTest {
 
     @Test
     void getByTitleKO(){
-        PanacheQuery<Movie> query = mock(PanacheQuery.class);
-        when(query.page(Mockito.any())).thenReturn(query);
-        when(query.singleResultOptional()).thenReturn(Optional.empty());
-
-        when(movieRepository.find("title", "Shrek")).thenReturn(query);
+        when(movieRepository.findByTitle("Shrek")).thenReturn(Optional.empty());
 
-        Response response = movieResource.getByTitle("Shrek");
+        Response response = movieResource.getByTitle("Shrek", null).toCompletableFuture().join();
         assertNotNull(response);
         assertEquals(Response.Status.NOT_FOUND.getStatusCode(), response.getStatus());
         assertNull(response.getEntity());
@@ -130,9 +370,9 @@ public class MovieResourceTest {
         movies.add(movie);
         when(movieRepository.findByCountry("Pantano")).thenReturn(movies);
 
-        Response response = movieResource.getByCountry("Pantano");
+        Response response = movieResource.getByCountry("Pantano", MovieView.FULL, null, null).toCompletableFuture().join();
 
-        List<Movie> entity = (List<Movie>) response.getEntity();
+        List<Movie> entity = entity(response, new TypeReference<>() {});
 
         assertNotNull(response);
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
@@ -161,7 +401,7 @@ public class MovieResourceTest {
         newMovie.setCountry("Planeta");
         newMovie.setDirector("Eu");
         newMovie.setId(2L);
-        Response response = movieResource.createMovie(newMovie);
+        Response response = movieResource.createMovie(newMovie).toCompletableFuture().join();
         assertNotNull(response);
         assertEquals(RestResponse.Status.CREATED.getStatusCode(), response.getStatus());
         assertNotNull(response.getLocation());
@@ -183,7 +423,7 @@ public class MovieResourceTest {
         newMovie.setCountry("Planeta");
         newMovie.setDirector("Eu");
         newMovie.setId(2L);
-        Response response = movieResource.createMovie(newMovie);
+        Response response = movieResource.createMovie(newMovie).toCompletableFuture().join();
         assertNotNull(response);
         assertEquals(RestResponse.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
         assertNull(response.getEntity());
@@ -196,7 +436,7 @@ public class MovieResourceTest {
         updatedMovie.setTitle("Azul");
         when(movieRepository.findByIdOptional(1L)).thenReturn(Optional.of(movie));
 
-        Response response = movieResource.updateMovieById(1L, updatedMovie );
+        Response response = movieResource.updateMovieById(1L, null, updatedMovie ).toCompletableFuture().join();
         Movie entity = (Movie) response.getEntity();
 
         assertNotNull(response);
@@ -210,7 +450,7 @@ public class MovieResourceTest {
 
         when(movieRepository.findByIdOptional(1L)).thenReturn(Optional.empty());
 
-        Response response = movieResource.updateMovieById(1L, new Movie());
+        Response response = movieResource.updateMovieById(1L, null, new Movie()).toCompletableFuture().join();
         Movie entity = (Movie) response.getEntity();
 
         assertNotNull(response);
@@ -220,20 +460,66 @@ public class MovieResourceTest {
 
     @Test
     void deleteByIdOK(){
-        when(movieRepository.deleteById(1L)).thenReturn(true);
-        Response response = movieResource.deleteById(1L);
+        when(movieRepository.findByIdOptional(1L)).thenReturn(Optional.of(movie));
+        Response response = movieResource.deleteById(1L, null).toCompletableFuture().join();
         assertNotNull(response);
         assertEquals(Response.Status.NO_CONTENT.getStatusCode(), response.getStatus());
         assertNull(response.getEntity());
+        verify(movieRepository).delete(movie);
     }
 
     @Test
     void deleteByIdKO(){
-        when(movieRepository.deleteById(1L)).thenReturn(false);
-        Response response = movieResource.deleteById(1L);
+        when(movieRepository.findByIdOptional(1L)).thenReturn(Optional.empty());
+        Response response = movieResource.deleteById(1L, null).toCompletableFuture().join();
         assertNotNull(response);
         assertEquals(Response.Status.NOT_FOUND.getStatusCode(), response.getStatus());
         assertNull(response.getEntity());
+        verify(movieRepository, never()).delete(any(Movie.class));
     }
-}
 
+    @Test
+    void countersFollowCommittedWrites(){
+        when(movieRepository.isPersistent(any(Movie.class))).thenReturn(true);
+        long total = movieResource.countMovies().toCompletableFuture().join();
+        long inCountry = movieResource.countMoviesByCountry("Pantano").toCompletableFuture().join();
+
+        movieResource.createMovie(movie).toCompletableFuture().join();
+        assertEquals(total + 1, movieResource.countMovies().toCompletableFuture().join());
+        assertEquals(inCountry + 1, movieResource.countMoviesByCountry("Pantano").toCompletableFuture().join());
+
+        when(movieRepository.findByIdOptional(1L)).thenReturn(Optional.of(movie));
+        movieResource.deleteById(1L, null).toCompletableFuture().join();
+        assertEquals(total, movieResource.countMovies().toCompletableFuture().join());
+        assertEquals(inCountry, movieResource.countMoviesByCountry("Pantano").toCompletableFuture().join());
+        verify(movieRepository, never()).listAll();
+    }
+
+    @Test
+    void statsRollupsFollowCommittedWrites(){
+        when(movieRepository.isPersistent(any(Movie.class))).thenReturn(true);
+        Movie sequel = new Movie();
+        sequel.setId(2L);
+        sequel.setTitle("Shrek 2");
+        sequel.setCountry("Pantano");
+        sequel.setDirector("Gato de botas");
+        movieResource.createMovie(movie).toCompletableFuture().join();
+        movieResource.createMovie(sequel).toCompletableFuture().join();
+
+        List<GroupCount> top = (List<GroupCount>) movieResource.statsByDirector(1).toCompletableFuture().join().getEntity();
+        assertEquals(1, top.size());
+        assertEquals("Gato de botas", top.get(0).getKey());
+        long directed = top.get(0).getCount();
+
+        when(movieRepository.findByIdOptional(2L)).thenReturn(Optional.of(sequel));
+        movieResource.deleteById(2L, null).toCompletableFuture().join();
+        List<GroupCount> byDirector = (List<GroupCount>) movieResource.statsByDirector(null).toCompletableFuture().join().getEntity();
+        assertEquals(directed - 1, byDirector.stream()
+                .filter(group -> group.getKey().equals("Gato de botas"))
+                .findFirst().orElseThrow().getCount());
+        assertTrue(((List<GroupCount>) movieResource.statsByCountry(3).toCompletableFuture().join().getEntity()).size() <= 3);
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(),
+                movieResource.statsByCountry(0).toCompletableFuture().join().getStatus());
+        verify(movieRepository, never()).listAll();
+    }
+}
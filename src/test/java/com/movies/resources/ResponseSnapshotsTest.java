@@ -0,0 +1,124 @@
+package com.movies.resources;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.decoder.Decoder;
+import com.movies.cache.CatalogVersion;
+import com.movies.cache.ResponseSnapshots;
+import com.movies.dto.MovieView;
+import com.movies.repository.RecordingStatementInspector;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.RestAssured;
+import io.restassured.config.DecoderConfig;
+import io.restassured.http.ContentType;
+import io.restassured.response.ExtractableResponse;
+import io.restassured.response.Response;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class ResponseSnapshotsTest {
+
+    private static final String COUNTRY = "Snapland";
+
+    @Inject
+    ResponseSnapshots responseSnapshots;
+
+    @Inject
+    CatalogVersion catalogVersion;
+
+    @Inject
+    @PersistenceUnitExtension
+    RecordingStatementInspector statementInspector;
+
+    @BeforeEach
+    void seed() {
+        if (Long.parseLong(given().get("/movies/country/{country}/size", COUNTRY).asString()) > 0) {
+            return;
+        }
+        for (int i = 0; i < 20; i++) {
+            given().contentType(ContentType.JSON)
+                    .body("{\"title\":\"Snapshot " + i + "\",\"country\":\"" + COUNTRY + "\","
+                            + "\"description\":\"A long enough description so the listing is worth compressing\"}")
+                    .post("/movies")
+                    .then().statusCode(201);
+        }
+    }
+
+    private static ExtractableResponse<Response> get(String acceptEncoding) {
+        return given().header("Accept-Encoding", acceptEncoding)
+                .config(RestAssured.config().decoderConfig(DecoderConfig.decoderConfig().noContentDecoders()))
+                .get("/movies/country/{country}", COUNTRY)
+                .then().statusCode(200)
+                .header("Vary", containsString("Accept-Encoding"))
+                .extract();
+    }
+
+    @Test
+    void negotiatesContentEncoding() throws Exception {
+        ExtractableResponse<Response> identity = get("identity");
+        ExtractableResponse<Response> gzip = get("gzip");
+        ExtractableResponse<Response> brotli = get("gzip, br");
+
+        assertNull(identity.header("Content-Encoding"));
+        assertEquals("gzip", gzip.header("Content-Encoding"));
+        assertTrue(gzip.asByteArray().length < identity.asByteArray().length);
+        assertEquals(identity.header("ETag"), gzip.header("ETag"));
+        if (Brotli4jLoader.isAvailable()) {
+            assertEquals("br", brotli.header("Content-Encoding"));
+            byte[] decoded = Decoder.decompress(brotli.asByteArray()).getDecompressedData();
+            assertEquals(identity.asString(), new String(decoded, StandardCharsets.UTF_8));
+        }
+        given().get("/movies/country/{country}", COUNTRY)
+                .then().statusCode(200).body("size()", greaterThanOrEqualTo(20));
+    }
+
+    @Test
+    void servesNewDataAfterCommittedWrite() {
+        String before = get("gzip").header("ETag");
+        given().contentType(ContentType.JSON)
+                .body("{\"title\":\"Snapshot late\",\"country\":\"" + COUNTRY + "\"}")
+                .post("/movies")
+                .then().statusCode(201);
+
+        given().get("/movies/country/{country}", COUNTRY)
+                .then().statusCode(200)
+                .header("ETag", not(before))
+                .body("title", hasItem("Snapshot late"));
+    }
+
+    /**
+     * A snapshot served since its last build is reloaded in the background
+     * after a commit, so the next request is answered without a query.
+     */
+    @Test
+    void rebuildsServedSnapshotAfterCommittedWrite() throws Exception {
+        String key = "country:" + MovieView.FULL + ":" + COUNTRY;
+        get("gzip");
+        get("gzip");
+        given().contentType(ContentType.JSON)
+                .body("{\"title\":\"Snapshot rebuilt\",\"country\":\"" + COUNTRY + "\"}")
+                .post("/movies")
+                .then().statusCode(201);
+
+        for (int i = 0; i < 100 && responseSnapshots.current(key, catalogVersion.current()).isEmpty(); i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(responseSnapshots.current(key, catalogVersion.current()).isPresent(), "snapshot was not rebuilt");
+
+        statementInspector.start();
+        given().get("/movies/country/{country}", COUNTRY)
+                .then().statusCode(200)
+                .body("title", hasItem("Snapshot rebuilt"));
+        List<String> statements = statementInspector.stop();
+        assertEquals(List.of(), statements);
+    }
+}
@@ -0,0 +1,93 @@
+package com.movies.resources;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class SuggestTest {
+
+    /**
+     * Imports through the bulk endpoint, which reports ids without reading
+     * the movies back, so no views are counted.
+     */
+    private static List<Long> create(String... titles) {
+        String body = Stream.of(titles).map(title -> "{\"title\":\"" + title + "\"}")
+                .collect(Collectors.joining(",", "[", "]"));
+        return given().contentType(ContentType.JSON)
+                .body(body)
+                .post("/movies/bulk")
+                .then().statusCode(200).extract().jsonPath().getList("items.id", Long.class);
+    }
+
+    private static List<String> suggest(String prefix) {
+        return given().queryParam("prefix", prefix)
+                .get("/movies/suggest")
+                .then().statusCode(200).extract().jsonPath().getList("title");
+    }
+
+    @Test
+    void completesNormalizedPrefixes() {
+        create("Zvenigora", "Zéro de conduite", "Zemlya");
+
+        assertEquals(List.of("Zemlya", "Zéro de conduite"), suggest("ZE"));
+        assertEquals(List.of("Zéro de conduite"), suggest("zero d"));
+        assertEquals(List.of("Zemlya"), given().queryParam("prefix", "ze").queryParam("limit", 1)
+                .get("/movies/suggest").then().statusCode(200).extract().jsonPath().getList("title"));
+        given().get("/movies/suggest?prefix=zx").then().statusCode(200).body("$", empty());
+    }
+
+    @Test
+    void followsWritesAndFuzzyMatches() {
+        long id = create("Oktyabr").get(0);
+        assertEquals(List.of("Oktyabr"), suggest("okty"));
+        given().get("/movies/suggest?prefix=oktybr").then().statusCode(200).body("$", empty());
+        given().get("/movies/suggest?prefix=oktybr&fuzzy=true")
+                .then().statusCode(200).body("title", contains("Oktyabr")).body("fuzzy", contains(true));
+
+        given().contentType(ContentType.JSON)
+                .body("{\"title\":\"October: Ten Days That Shook the World\"}")
+                .patch("/movies/{id}", id)
+                .then().statusCode(200);
+        assertTrue(suggest("okty").isEmpty());
+        assertEquals(List.of("October: Ten Days That Shook the World"), suggest("october ten"));
+
+        given().delete("/movies/{id}", id).then().statusCode(204);
+        assertTrue(suggest("october").isEmpty());
+    }
+
+    @Test
+    void ranksByViews() throws InterruptedException {
+        long popular = create("Kino-Glaz", "Kinoeye Reloaded").get(1);
+        assertEquals(List.of("Kino-Glaz", "Kinoeye Reloaded"), suggest("kino"));
+
+        for (int i = 0; i < 3; i++) {
+            given().get("/movies/{id}", popular).then().statusCode(200);
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!suggest("kino").get(0).equals("Kinoeye Reloaded") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(List.of("Kinoeye Reloaded", "Kino-Glaz"), suggest("kino"));
+    }
+
+    @Test
+    void rejectsMissingPrefixAndInvalidLimit() {
+        given().get("/movies/suggest").then().statusCode(400);
+        given().queryParam("prefix", " ").get("/movies/suggest").then().statusCode(400);
+        given().get("/movies/suggest?prefix=a&limit=0").then().statusCode(400);
+        create(IntStream.rangeClosed(1, 11).mapToObj(i -> "Capped " + i).toArray(String[]::new));
+        given().get("/movies/suggest?prefix=capped&limit=1000").then().statusCode(200).body("$", hasSize(10));
+    }
+}
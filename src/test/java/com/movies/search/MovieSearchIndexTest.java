@@ -0,0 +1,78 @@
+package com.movies.search;
+
+import com.movies.dto.SearchResults;
+import com.movies.entities.Movie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MovieSearchIndexTest {
+
+    private MovieSearchIndex index;
+
+    @BeforeEach
+    void setUp(){
+        index = new MovieSearchIndex();
+        index.index(movie(1L, "Shrek", "An ogre lives in a swamp", "Andrew Adamson"));
+        index.index(movie(2L, "Shrek 2", "The ogre meets the parents", "Andrew Adamson"));
+        index.index(movie(3L, "Le Fabuleux Destin d'Amélie Poulain", "A shy waitress in Paris", "Jean-Pierre Jeunet"));
+        index.index(movie(4L, "Swamp Thing", "A scientist becomes a swamp creature", "Wes Craven"));
+    }
+
+    @Test
+    void normalizesCaseAndDiacritics(){
+        SearchResults results = index.search("AMELIE", 0, 10);
+
+        assertEquals(1, results.getTotal());
+        assertEquals(3L, results.getItems().get(0).getId());
+    }
+
+    @Test
+    void ranksTitleMatchesFirst(){
+        SearchResults results = index.search("swamp", 0, 10);
+
+        assertEquals(2, results.getTotal());
+        assertEquals(4L, results.getItems().get(0).getId());
+        assertEquals(1L, results.getItems().get(1).getId());
+    }
+
+    @Test
+    void paginates(){
+        SearchResults first = index.search("ogre adamson", 0, 1);
+        SearchResults second = index.search("ogre adamson", 1, 1);
+
+        assertEquals(2, first.getTotal());
+        assertEquals(1, first.getItems().size());
+        assertEquals(1, second.getItems().size());
+        assertNotEquals(first.getItems().get(0).getId(), second.getItems().get(0).getId());
+        assertTrue(index.search("ogre adamson", 2, 1).getItems().isEmpty());
+    }
+
+    @Test
+    void followsUpdatesAndDeletes(){
+        index.index(movie(4L, "Swamp Thing", "A scientist becomes a plant", "Wes Craven"));
+        assertEquals(0, index.search("creature", 0, 10).getTotal());
+        assertEquals(1, index.search("plant", 0, 10).getTotal());
+
+        index.remove(1L);
+        SearchResults results = index.search("shrek", 0, 10);
+        assertEquals(1, results.getTotal());
+        assertEquals(2L, results.getItems().get(0).getId());
+    }
+
+    @Test
+    void ignoresEmptyQueries(){
+        assertEquals(0, index.search("  ", 0, 10).getTotal());
+        assertEquals(0, index.search(null, 0, 10).getTotal());
+    }
+
+    private static Movie movie(Long id, String title, String description, String director){
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle(title);
+        movie.setDescription(description);
+        movie.setDirector(director);
+        return movie;
+    }
+}
@@ -0,0 +1,112 @@
+package com.movies.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TitleTrieTest {
+
+    private static final int K = 3;
+
+    private static TitleTrie.Entry entry(long id, String title, long weight) {
+        return new TitleTrie.Entry(id, title, TitleSuggester.key(title), weight);
+    }
+
+    private static List<Long> ids(List<TitleTrie.Entry> entries) {
+        return entries.stream().map(entry -> entry.id).toList();
+    }
+
+    @Test
+    void ranksPrefixMatchesByWeight() {
+        TitleTrie trie = new TitleTrie(K);
+        trie.add(entry(1, "Star Wars", 5));
+        trie.add(entry(2, "Stargate", 9));
+        trie.add(entry(3, "Star Trek", 7));
+        trie.add(entry(4, "Starship Troopers", 1));
+        trie.add(entry(5, "Stalker", 3));
+
+        assertEquals(List.of(2L, 3L, 1L), ids(trie.top("star", 3)));
+        assertEquals(List.of(3L, 1L), ids(trie.top("star ", 3)));
+        assertEquals(List.of(5L), ids(trie.top("stal", 3)));
+        assertTrue(trie.top("starz", 3).isEmpty());
+    }
+
+    @Test
+    void fuzzyMatchesOneEdit() {
+        TitleTrie trie = new TitleTrie(K);
+        trie.add(entry(1, "Amélie", 0));
+        trie.add(entry(2, "American Beauty", 0));
+        trie.add(entry(3, "Alien", 0));
+
+        assertEquals(List.of(1L), ids(trie.fuzzyTop("amelei", 3)));
+        assertEquals(List.of(2L), ids(trie.fuzzyTop("amercan", 3)));
+        assertEquals(List.of(3L), ids(trie.fuzzyTop("allien", 3)));
+        assertEquals(List.of(3L), ids(trie.fuzzyTop("slien", 3)));
+        assertTrue(trie.fuzzyTop("xyzzy", 3).isEmpty());
+    }
+
+    @Test
+    void raisingWeightReordersAncestors() {
+        TitleTrie trie = new TitleTrie(K);
+        TitleTrie.Entry last = entry(4, "The Thing", 0);
+        trie.add(entry(1, "The Birds", 3));
+        trie.add(entry(2, "The Shining", 2));
+        trie.add(entry(3, "The Fly", 1));
+        trie.add(last);
+
+        trie.raise(last, 10);
+
+        assertEquals(List.of(4L, 1L, 2L), ids(trie.top("the", 3)));
+        assertEquals(List.of(4L), ids(trie.top("the t", 3)));
+    }
+
+    /**
+     * Replays random adds, removes and weight changes against a plain list and
+     * compares every prefix lookup with a full scan.
+     */
+    @Test
+    void matchesBruteForceUnderRandomChanges() {
+        Random random = new Random(7);
+        String[] words = {"star", "stargate", "the", "theory", "war", "wars", "a", "an", "ant", "man"};
+        TitleTrie trie = new TitleTrie(K);
+        Map<Long, TitleTrie.Entry> live = new HashMap<>();
+
+        for (int step = 0; step < 5000; step++) {
+            long id = random.nextInt(300);
+            TitleTrie.Entry existing = live.get(id);
+            int action = random.nextInt(10);
+            if (existing == null) {
+                String title = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+                TitleTrie.Entry added = entry(id, title, random.nextInt(20));
+                trie.add(added);
+                live.put(id, added);
+            } else if (action < 4) {
+                assertTrue(trie.remove(existing));
+                live.remove(id);
+            } else {
+                trie.raise(existing, random.nextInt(5));
+            }
+
+            if (step % 50 == 0) {
+                assertEquals(live.size(), trie.size());
+                for (String prefix : new String[]{"", "s", "sta", "star", "star ", "the", "w", "an", "a m", "zz"}) {
+                    List<TitleTrie.Entry> expected = new ArrayList<>();
+                    for (TitleTrie.Entry entry : live.values()) {
+                        if (entry.key.startsWith(prefix)) {
+                            expected.add(entry);
+                        }
+                    }
+                    expected.sort(TitleTrie.RANKING);
+                    assertEquals(ids(expected.subList(0, Math.min(K, expected.size()))), ids(trie.top(prefix, K)),
+                            "prefix '" + prefix + "' at step " + step);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.movies.stats;
+
+import com.movies.dto.GroupCount;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollupTest {
+
+    @Test
+    void appliesDeltasAndDropsEmptyGroups() {
+        Rollup rollup = new Rollup();
+        rollup.replaceAll(Map.of("France", 2L, "Japan", 1L));
+
+        rollup.increment("Japan");
+        rollup.increment(null);
+        rollup.decrement("France");
+        rollup.decrement("France");
+        rollup.decrement("Mexico");
+
+        assertEquals(0, rollup.get("France"));
+        assertEquals(2, rollup.get("Japan"));
+        assertEquals(1, rollup.all().size());
+    }
+
+    @Test
+    void topReturnsLargestGroupsWithTiesByKey() {
+        Rollup rollup = new Rollup();
+        rollup.replaceAll(Map.of("a", 3L, "b", 5L, "c", 3L, "d", 1L));
+
+        List<GroupCount> top = rollup.top(3);
+
+        assertEquals(List.of("b", "a", "c"), top.stream().map(GroupCount::getKey).toList());
+        assertEquals(List.of(5L, 3L, 3L), top.stream().map(GroupCount::getCount).toList());
+        assertEquals(4, rollup.top(10).size());
+        assertEquals(rollup.all().stream().map(GroupCount::getKey).toList(),
+                rollup.top(4).stream().map(GroupCount::getKey).toList());
+    }
+}